@@ -0,0 +1,89 @@
+-- Query plans of the hot lookups on MySQL 8. Run it on a scratch database migrated to the latest version:
+--   mysql -u root activity_db < docs/sql/hot_path_query_plans.sql
+-- It seeds 200 activities with 10 groups of 5 participants and one document per group, then explains every lookup.
+-- Seeded rows use ids from 900000000 and uuids starting with A0 (activities) or B0 (groups) and are replaced on
+-- every run. The same plans are checked on H2 by SchemaIndexTest.
+SET SESSION cte_max_recursion_depth = 100000;
+
+-- Previous run
+DELETE FROM DOCUMENT_EDITORS WHERE document_id >= 900000000;
+DELETE FROM ASSIGNED_PARTICIPANTS WHERE document_id >= 900000000;
+DELETE FROM Document WHERE id >= 900000000;
+UPDATE User SET activity_uuid = NULL, groupActivity_uuid = NULL WHERE id >= 900000000;
+DELETE FROM GroupActivity WHERE activityOwner_uuid IN (SELECT uuid FROM Activity WHERE creator_id >= 900000000);
+DELETE FROM Activity WHERE creator_id >= 900000000;
+DELETE FROM User WHERE id >= 900000000;
+DELETE FROM Workflow WHERE id = 900000000;
+
+-- Seed
+INSERT INTO Workflow (id, name, description)
+VALUES (900000000, 'plan-seed-workflow', 'Workflow of the query plan script');
+
+INSERT INTO User (id, externalId, user_status, createdAt, updatedAt)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 9999)
+SELECT 900000000 + n, CONCAT('plan-seed-user-', n), 'CONNECTED', NOW(6), NOW(6)
+FROM seq;
+
+INSERT INTO Activity (uuid, actualStage, isActive, createdAt, updatedAt, version, creator_id, workflow_id)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 199)
+SELECT UNHEX(CONCAT('A0', LPAD(HEX(n), 30, '0'))), 1, 1, NOW(6), NOW(6), 0, 900000000 + n * 50, 900000000
+FROM seq;
+
+INSERT INTO GroupActivity (uuid, capacity, activityOwner_uuid)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 1999)
+SELECT UNHEX(CONCAT('B0', LPAD(HEX(n), 30, '0'))), 5, UNHEX(CONCAT('A0', LPAD(HEX(n DIV 10), 30, '0')))
+FROM seq;
+
+UPDATE User
+SET activity_uuid      = UNHEX(CONCAT('A0', LPAD(HEX((id - 900000000) DIV 50), 30, '0'))),
+    groupActivity_uuid = UNHEX(CONCAT('B0', LPAD(HEX((id - 900000000) DIV 5), 30, '0')))
+WHERE id >= 900000000;
+
+INSERT INTO Document (id, externalId, remainingWriters, rounds, turnPosition, groupActivity_id)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 1999)
+SELECT 900000000 + n, CONCAT('plan-seed-document-', n), IF(n MOD 2 = 0, 0, 3), 1, 0, UNHEX(CONCAT('B0', LPAD(HEX(n), 30, '0')))
+FROM seq;
+
+INSERT INTO ASSIGNED_PARTICIPANTS (document_id, participant_id)
+SELECT 900000000 + (id - 900000000) DIV 5, id
+FROM User
+WHERE id >= 900000000;
+
+INSERT INTO DOCUMENT_EDITORS (document_id, participant_id)
+SELECT 900000000 + (id - 900000000) DIV 5, id
+FROM User
+WHERE id >= 900000000
+  AND (id - 900000000) MOD 5 < 2;
+
+ANALYZE TABLE Workflow, User, Activity, GroupActivity, Document, ASSIGNED_PARTICIPANTS, DOCUMENT_EDITORS;
+
+-- Workflow by name: IDX_WORKFLOW_NAME
+EXPLAIN SELECT id FROM Workflow WHERE name = 'plan-seed-workflow';
+
+-- Documents of a group: IDX_DOCUMENT_GROUP_ACTIVITY
+EXPLAIN SELECT id FROM Document WHERE groupActivity_id = X'B0000000000000000000000000000001';
+
+-- Unfinished documents of an activity: IDX_GROUP_ACTIVITY_OWNER, then IDX_DOCUMENT_GROUP_ACTIVITY with "Using index"
+EXPLAIN SELECT COUNT(d.id)
+FROM Document d
+         JOIN GroupActivity g ON g.uuid = d.groupActivity_id
+WHERE g.activityOwner_uuid = X'A0000000000000000000000000000001'
+  AND (d.remainingWriters > 0 OR d.rounds < 2);
+
+-- Participants of an activity and of a group: IDX_USER_ACTIVITY and IDX_USER_GROUP_ACTIVITY
+EXPLAIN SELECT id FROM User WHERE activity_uuid = X'A0000000000000000000000000000001';
+EXPLAIN SELECT id FROM User WHERE groupActivity_uuid = X'B0000000000000000000000000000001';
+
+-- Documents of a group assigned to a participant: UK_USER_EXTERNAL_ID, IDX_ASSIGNED_PARTICIPANTS_PARTICIPANT
+EXPLAIN SELECT d.id
+FROM Document d
+         JOIN ASSIGNED_PARTICIPANTS ap ON ap.document_id = d.id
+         JOIN User u ON u.id = ap.participant_id
+WHERE d.groupActivity_id = X'B0000000000000000000000000000001'
+  AND u.externalId = 'plan-seed-user-7';
+
+-- Documents a participant already edited: IDX_DOCUMENT_EDITORS_PARTICIPANT
+EXPLAIN SELECT document_id FROM DOCUMENT_EDITORS WHERE participant_id = 900000007;
+
+-- Next outbox batch of a relay worker: IDX_OUTBOX_MESSAGE_RELAY_PARTITION, no filesort
+EXPLAIN SELECT id FROM OutboxMessage WHERE relayPartition = 1 ORDER BY id LIMIT 100;
@@ -1,9 +1,14 @@
 package dev.orion.api.endpoint;
 
 import dev.orion.api.endpoint.body.*;
+import dev.orion.broker.dto.ActivityUpdateMessageDto;
 import dev.orion.entity.Activity;
+import dev.orion.services.ActivityEventHub;
+import dev.orion.services.dto.ActivitySummary;
+import dev.orion.services.interfaces.ActivityQueryService;
 import dev.orion.services.interfaces.ActivityService;
 import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
@@ -16,33 +21,164 @@ import javax.inject.Inject;
 import javax.transaction.Transactional;
 import javax.validation.Valid;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Path("/v1/activities")
 public class ActivityEndpoint {
+    private static final Set<String> EXPANDABLE_PARTS = Set.of(ActivityQueryService.EXPAND_GROUPS, ActivityQueryService.EXPAND_DOCUMENTS);
+    static final Long EVENT_SEND_TIMEOUT_MS = ConfigProvider.getConfig().getOptionalValue("activity.events.send-timeout-ms", Long.class).orElse(5000L);
 
     @Inject
     ActivityService activityService;
 
+    @Inject
+    ActivityQueryService activityQueryService;
+
+    @Inject
+    ActivityEventHub activityEventHub;
+
+    @Context
+    HttpHeaders httpHeaders;
+
     @GET
     @Path("/{activityUuid}")
     @Produces(MediaType.APPLICATION_JSON)
     @APIResponseSchema(Activity.class)
-    public Response findActivity(@Parameter(description = "UUID of activity to be started", example = "372bf2a5-0da3-47bd-8c94-4a09d25d362a") @PathParam String activityUuid) {
+    public Response findActivity(
+            @Parameter(description = "UUID of activity to be started", example = "372bf2a5-0da3-47bd-8c94-4a09d25d362a") @PathParam String activityUuid,
+            @Context Request request) {
+        val uuid = UUID.fromString(activityUuid);
+        val notModifiedResponse = evaluateActivityVersion(request, uuid, "entity");
+        if (notModifiedResponse.isPresent()) {
+            return notModifiedResponse.get().build();
+        }
+
         Activity activity = (Activity) Activity
-                .findByIdOptional(UUID.fromString(activityUuid))
+                .findByIdOptional(uuid)
                 .orElseThrow(() -> new NotFoundException(
                         MessageFormat.format("Activity {0} not found", activityUuid)));
 
         return Response
                 .ok(activity)
+                .tag(activityTag(uuid, activity.getVersion(), "entity"))
+                .build();
+    }
+
+    @GET
+    @Path("/{activityUuid}/summary")
+    @Produces(MediaType.APPLICATION_JSON)
+    @APIResponseSchema(ActivitySummary.class)
+    public Response findActivitySummary(
+            @Parameter(description = "UUID of activity", example = "372bf2a5-0da3-47bd-8c94-4a09d25d362a") @PathParam String activityUuid,
+            @Parameter(description = "Comma separated parts to include: groups, documents", example = "groups,documents") @QueryParam("expand") String expand,
+            @Context Request request) {
+        Set<String> expandedParts = Objects.isNull(expand) ? new TreeSet<>() : Arrays.stream(expand.split(","))
+                .map(String::trim)
+                .map(String::toLowerCase)
+                .filter(EXPANDABLE_PARTS::contains)
+                .collect(Collectors.toCollection(TreeSet::new));
+        val uuid = UUID.fromString(activityUuid);
+        val representation = Stream.concat(Stream.of("summary"), expandedParts.stream()).collect(Collectors.joining("+"));
+        val notModifiedResponse = evaluateActivityVersion(request, uuid, representation);
+        if (notModifiedResponse.isPresent()) {
+            return notModifiedResponse.get().build();
+        }
+
+        val activitySummary = activityQueryService.getActivitySummary(uuid, expandedParts);
+        return Response
+                .ok(activitySummary)
+                .tag(activityTag(uuid, activitySummary.getVersion(), representation))
                 .build();
     }
 
+    @GET
+    @Path("/{activityUuid}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @APIResponse(
+            responseCode = "200",
+            description = "Stream of activity updates as server-sent events, starting with the current state of the activity",
+            content = @Content(schema = @Schema(implementation = ActivityUpdateMessageDto.class))
+    )
+    public void streamActivityUpdates(
+            @Parameter(description = "UUID of activity to follow", example = "372bf2a5-0da3-47bd-8c94-4a09d25d362a") @PathParam String activityUuid,
+            @Context SseEventSink eventSink,
+            @Context Sse sse) {
+        val uuid = UUID.fromString(activityUuid);
+        val subscription = activityEventHub.subscribe(uuid,
+                activityUpdate -> sendActivityUpdate(eventSink, sse, activityUpdate),
+                () -> send(eventSink, sse.newEventBuilder().comment("heartbeat").build()));
+
+//        The current state is read after subscribing, so no update committed in between is missed
+        Optional<Activity> activity = Activity.findByIdOptional(uuid);
+        if (activity.isEmpty()) {
+            subscription.close();
+            throw new NotFoundException(MessageFormat.format("Activity {0} not found", activityUuid));
+        }
+
+        subscription.offer(new ActivityUpdateMessageDto(activity.get(), UUID.randomUUID()));
+    }
+
+    private CompletionStage<?> sendActivityUpdate(SseEventSink eventSink, Sse sse, ActivityUpdateMessageDto activityUpdate) {
+        val event = sse.newEventBuilder()
+                .name("activity-update")
+                .id(String.valueOf(activityUpdate.getMessageKey()))
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(ActivityUpdateMessageDto.class, activityUpdate)
+                .build();
+        return send(eventSink, event);
+    }
+
+    //    The dispatcher thread is never held by the write, a failed or timed out send closes the stream and the
+    //    subscription with it
+    private CompletionStage<?> send(SseEventSink eventSink, OutboundSseEvent event) {
+        if (eventSink.isClosed()) {
+            throw new IllegalStateException("Event stream closed by the client");
+        }
+
+        return eventSink.send(event)
+                .toCompletableFuture()
+                .orTimeout(EVENT_SEND_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (Objects.nonNull(error)) {
+                        eventSink.close();
+                    }
+                });
+    }
+
+    //    Conditional reads only look up the activity version, the activity itself is loaded when it changed
+    private Optional<Response.ResponseBuilder> evaluateActivityVersion(Request request, UUID uuid, String representation) {
+        if (Objects.isNull(httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH))) {
+            return Optional.empty();
+        }
+
+        val version = Activity.findVersion(uuid)
+                .orElseThrow(() -> new NotFoundException(MessageFormat.format("Activity {0} not found", uuid)));
+        return Optional.ofNullable(request.evaluatePreconditions(activityTag(uuid, version, representation)));
+    }
+
+    private EntityTag activityTag(UUID uuid, Long version, String representation) {
+        return new EntityTag(uuid + "-" + Objects.requireNonNullElse(version, 0L) + "-" + representation);
+    }
+
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
@@ -101,6 +237,34 @@ public class ActivityEndpoint {
                 .build();
     }
 
+    @POST
+    @Path("/{activityUuid}/addUsers")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @APIResponses({
+            @APIResponse(
+                    content = {@Content(schema = @Schema(implementation = AddUsersToActivityResponseBody.class))},
+                    description = "Add a list of users into activity, telling for each user whether it was added or why not.",
+                    responseCode = "200"
+            ),
+            @APIResponse(
+                    content = {@Content(schema = @Schema(implementation = DefaultErrorResponseBody.class))},
+                    description = "List of errors when the activity can not receive users",
+                    responseCode = "400"
+            )
+    })
+    public Response addUsersToActivity(
+            @Valid AddUsersToActivityRequestBody addUsersToActivityRequestBody,
+            @Parameter(description = "UUID of activity to receive the users", example = "372bf2a5-0da3-47bd-8c94-4a09d25d362a") @PathParam String activityUuid) {
+        val uuid = UUID.fromString(activityUuid);
+        val results = activityService.addUsersInActivity(uuid, addUsersToActivityRequestBody.userExternalIds);
+
+        return Response
+                .status(Response.Status.OK)
+                .entity(new AddUsersToActivityResponseBody(uuid, results))
+                .build();
+    }
+
     @PATCH
     @Path("/{activityUuid}/start")
     @APIResponse(
@@ -0,0 +1,17 @@
+package dev.orion.api.endpoint.body;
+
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddUsersToActivityRequestBody {
+    @NotEmpty
+    @Size(max = 1000)
+    public List<@NotBlank String> userExternalIds;
+}
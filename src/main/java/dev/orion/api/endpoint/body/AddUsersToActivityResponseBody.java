@@ -0,0 +1,28 @@
+package dev.orion.api.endpoint.body;
+
+import dev.orion.services.dto.UserEnrollmentResult;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AddUsersToActivityResponseBody {
+    public UUID uuid;
+    public long enrolled;
+    public long rejected;
+    public List<UserEnrollmentResult> results;
+
+    public AddUsersToActivityResponseBody(UUID uuid, List<UserEnrollmentResult> results) {
+        this.uuid = uuid;
+        this.enrolled = results.stream().filter(UserEnrollmentResult::isEnrolled).count();
+        this.rejected = results.size() - enrolled;
+        this.results = results;
+    }
+}
@@ -0,0 +1,153 @@
+package dev.orion.broker;
+
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.orion.broker.dto.ActivityUpdateDeltaMessageDto;
+import dev.orion.broker.dto.ActivityUpdateMessageDto;
+import dev.orion.broker.dto.DocumentEditDto;
+import dev.orion.broker.dto.DocumentUpdateDto;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.lang.Boolean.FALSE;
+
+/**
+ * Reads and writes the broker messages with readers and writers built once per message type and format, so Jackson
+ * resolves each (de)serializer a single time instead of on every message. Output goes through a per thread buffer
+ * that is reset and reused, leaving the final copy to the exact message size as the only allocation per write.
+ * Incoming messages are decoded according to their content type and encoding, outgoing ones use the configured
+ * content type and are gzipped once they reach the compression threshold.
+ */
+@ApplicationScoped
+public class BrokerSerializer {
+    static final String CONTENT_TYPE = ConfigProvider.getConfig().getOptionalValue("rabbit.producer.content-type", String.class).orElse(ContentTypes.JSON);
+    static final Boolean COMPRESSION_ENABLED = ConfigProvider.getConfig().getOptionalValue("rabbit.producer.compression.enabled", Boolean.class).orElse(false);
+    static final Integer COMPRESSION_THRESHOLD_BYTES = ConfigProvider.getConfig().getOptionalValue("rabbit.producer.compression.threshold-bytes", Integer.class).orElse(8192);
+    static final String GZIP_ENCODING = "gzip";
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final Logger logger = Logger.getLogger(BrokerSerializer.class);
+    private static final ThreadLocal<ByteArrayBuilder> OUTPUT_BUFFERS = ThreadLocal.withInitial(() -> new ByteArrayBuilder(INITIAL_BUFFER_SIZE));
+
+    private final Map<String, ObjectReader> documentEditReaders = new HashMap<>();
+    private final ObjectWriter documentUpdateWriter;
+    private final ObjectWriter activityUpdateWriter;
+    private final ObjectWriter activityUpdateDeltaWriter;
+
+    public BrokerSerializer() {
+        val objectMappers = Map.of(
+                ContentTypes.JSON, new ObjectMapper(),
+                ContentTypes.CBOR, new ObjectMapper(new CBORFactory()),
+                ContentTypes.SMILE, new ObjectMapper(new SmileFactory()));
+        if (!objectMappers.containsKey(CONTENT_TYPE)) {
+            throw new IllegalArgumentException(MessageFormat.format("Content type {0} is not supported by the broker", CONTENT_TYPE));
+        }
+
+        objectMappers.forEach((contentType, objectMapper) -> documentEditReaders.put(contentType, objectMapper.readerFor(DocumentEditDto.class)));
+
+        val objectMapper = objectMappers.get(CONTENT_TYPE);
+        this.documentUpdateWriter = objectMapper.writerFor(DocumentUpdateDto.class);
+        this.activityUpdateWriter = objectMapper.writerFor(ActivityUpdateMessageDto.class);
+        this.activityUpdateDeltaWriter = objectMapper.writerFor(ActivityUpdateDeltaMessageDto.class);
+    }
+
+    //    Messages without content type come from publishers that predate the binary formats and are read as JSON
+    public DocumentEditDto readDocumentEdit(byte[] body, String contentType, String contentEncoding) throws IOException {
+        val documentEditReader = getDocumentEditReader(contentType);
+
+        if (Objects.isNull(contentEncoding)) {
+            return documentEditReader.readValue(body);
+        }
+
+        if (!GZIP_ENCODING.equalsIgnoreCase(contentEncoding)) {
+            throw new IOException(MessageFormat.format("Content encoding {0} is not supported", contentEncoding));
+        }
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return documentEditReader.readValue(inputStream);
+        }
+    }
+
+    //    Media type parameters such as charset are dropped before the lookup, an unknown type is read as JSON
+    private ObjectReader getDocumentEditReader(String contentType) {
+        if (Objects.isNull(contentType)) {
+            return documentEditReaders.get(ContentTypes.JSON);
+        }
+
+        val parameterStart = contentType.indexOf(';');
+        val mediaType = (parameterStart < 0 ? contentType : contentType.substring(0, parameterStart)).trim().toLowerCase(Locale.ROOT);
+        val documentEditReader = documentEditReaders.get(mediaType);
+        if (Objects.nonNull(documentEditReader)) {
+            return documentEditReader;
+        }
+
+        logger.warnv("Content type {0} is not supported, reading the message as JSON", contentType);
+        return documentEditReaders.get(ContentTypes.JSON);
+    }
+
+    public EncodedMessage writeDocumentUpdate(DocumentUpdateDto documentUpdateDto) throws IOException {
+        return write(documentUpdateWriter, documentUpdateDto);
+    }
+
+    public EncodedMessage writeActivityUpdate(ActivityUpdateMessageDto activityUpdateMessageDto) throws IOException {
+        return write(activityUpdateWriter, activityUpdateMessageDto);
+    }
+
+    public EncodedMessage writeActivityUpdateDelta(ActivityUpdateDeltaMessageDto activityUpdateDeltaMessageDto) throws IOException {
+        return write(activityUpdateDeltaWriter, activityUpdateDeltaMessageDto);
+    }
+
+    private EncodedMessage write(ObjectWriter writer, Object value) throws IOException {
+        val body = toBytes(outputStream -> writer.writeValue(outputStream, value));
+        if (FALSE == COMPRESSION_ENABLED || body.length < COMPRESSION_THRESHOLD_BYTES) {
+            return new EncodedMessage(CONTENT_TYPE, null, body);
+        }
+
+        val compressedBody = toBytes(outputStream -> {
+            try (OutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+                gzipOutputStream.write(body);
+            }
+        });
+        return new EncodedMessage(CONTENT_TYPE, GZIP_ENCODING, compressedBody);
+    }
+
+    private byte[] toBytes(BufferWriter bufferWriter) throws IOException {
+        val buffer = OUTPUT_BUFFERS.get();
+        try {
+            bufferWriter.writeTo(buffer);
+            return buffer.toByteArray();
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    @FunctionalInterface
+    private interface BufferWriter {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    public static final class ContentTypes {
+        public static final String JSON = "application/json";
+        public static final String CBOR = "application/cbor";
+        public static final String SMILE = "application/x-jackson-smile";
+
+        private ContentTypes() {}
+    }
+}
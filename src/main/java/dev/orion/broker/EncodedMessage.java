@@ -0,0 +1,21 @@
+package dev.orion.broker;
+
+import com.rabbitmq.client.AMQP;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EncodedMessage {
+    private final String contentType;
+    //    Null when the body is not compressed
+    private final String contentEncoding;
+    private final byte[] body;
+
+    public AMQP.BasicProperties toProperties() {
+        return new AMQP.BasicProperties.Builder()
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .build();
+    }
+}
@@ -0,0 +1,290 @@
+package dev.orion.broker;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import com.rabbitmq.client.Connection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.security.GeneralSecurityException;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Thread safe publishing layer over the shared broker connection. Messages are spread over a fixed set of channels
+ * in confirm mode, picking the channel by an ordering key so messages with the same key keep their order.
+ * Publishing does not wait for the broker confirm: outstanding sequence numbers are tracked per channel and settled
+ * by a {@link ConfirmListener}, while a semaphore caps how many messages may be unconfirmed at once. A channel the
+ * broker closed is replaced by a new one the next time a message is routed to it. The pool opens a broker connection
+ * of its own on the first publish, so flow control on publishers never blocks the consumer connection.
+ */
+@ApplicationScoped
+public class PublisherChannelPool {
+    static final Integer CHANNELS = ConfigProvider.getConfig().getOptionalValue("rabbit.publisher.channels", Integer.class).orElse(4);
+    static final Integer MAX_IN_FLIGHT = ConfigProvider.getConfig().getOptionalValue("rabbit.publisher.max-in-flight", Integer.class).orElse(1000);
+    static final Long IN_FLIGHT_TIMEOUT_MS = ConfigProvider.getConfig().getOptionalValue("rabbit.publisher.in-flight-timeout-ms", Long.class).orElse(5000L);
+    private static final Logger logger = Logger.getLogger(PublisherChannelPool.class);
+
+    private final Set<String> declaredQueues = ConcurrentHashMap.newKeySet();
+    private final ChannelOpener channelOpener;
+    private final int channelCount;
+    private final int maxInFlight;
+    private final long inFlightTimeoutMs;
+    private final Semaphore inFlightPermits;
+    private final Timer confirmTimer;
+    private final Counter nackCounter;
+    private volatile List<PooledChannel> channels;
+
+    @Inject
+    public PublisherChannelPool(MeterRegistry meterRegistry) {
+        this(meterRegistry, new BrokerChannelOpener(), CHANNELS, MAX_IN_FLIGHT, IN_FLIGHT_TIMEOUT_MS);
+    }
+
+    PublisherChannelPool(MeterRegistry meterRegistry, ChannelOpener channelOpener, int channelCount, int maxInFlight, long inFlightTimeoutMs) {
+        this.channelOpener = channelOpener;
+        this.channelCount = channelCount;
+        this.maxInFlight = maxInFlight;
+        this.inFlightTimeoutMs = inFlightTimeoutMs;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.confirmTimer = Timer.builder("orion.broker.publish.confirm")
+                .description("Time between publishing a message and receiving its broker confirm")
+                .register(meterRegistry);
+        this.nackCounter = Counter.builder("orion.broker.publish.nacks")
+                .description("Messages negatively acknowledged by the broker")
+                .register(meterRegistry);
+        meterRegistry.gauge("orion.broker.publish.in-flight", inFlightPermits, permits -> maxInFlight - permits.availablePermits());
+    }
+
+    /**
+     * Publishes without waiting for the broker. The returned future completes once the broker confirms the message
+     * and fails when it is nacked or its channel closes before the confirm arrives.
+     */
+    public CompletableFuture<Void> publish(String queueName, Object orderingKey, AMQP.BasicProperties properties, byte[] body) throws IOException {
+        val pooledChannel = getOpenChannel(Math.floorMod(Objects.hashCode(orderingKey), channelCount));
+
+        declareQueue(pooledChannel, queueName);
+        acquireInFlightPermit(queueName);
+        try {
+            synchronized (pooledChannel) {
+                val sequenceNumber = pooledChannel.channel.getNextPublishSeqNo();
+                val pendingPublish = new PendingPublish(queueName, System.nanoTime(), new CompletableFuture<>());
+                pooledChannel.outstanding.put(sequenceNumber, pendingPublish);
+                try {
+                    pooledChannel.channel.basicPublish("", queueName, properties, body);
+                } catch (IOException | RuntimeException e) {
+                    pooledChannel.outstanding.remove(sequenceNumber);
+                    throw e;
+                }
+                return pendingPublish.confirm;
+            }
+        } catch (IOException | RuntimeException e) {
+            inFlightPermits.release();
+            throw e;
+        }
+    }
+
+    public int getInFlightCount() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    @PreDestroy
+    void close() {
+        if (Objects.nonNull(channels)) {
+            channels.forEach(pooledChannel -> {
+                try {
+                    pooledChannel.channel.close();
+                } catch (IOException | TimeoutException | RuntimeException e) {
+                    logger.warnv("Could not close publisher channel: {0}", e.getMessage());
+                }
+            });
+        }
+        channelOpener.close();
+    }
+
+    private void declareQueue(PooledChannel pooledChannel, String queueName) throws IOException {
+        if (declaredQueues.contains(queueName)) {
+            return;
+        }
+
+        synchronized (pooledChannel) {
+            pooledChannel.channel.queueDeclare(queueName, false, false, false, null);
+        }
+        declaredQueues.add(queueName);
+    }
+
+    private void acquireInFlightPermit(String queueName) throws IOException {
+        try {
+            if (!inFlightPermits.tryAcquire(inFlightTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException(MessageFormat.format("Too many unconfirmed messages, could not publish to queue {0}", queueName));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to publish to queue " + queueName, e);
+        }
+    }
+
+    //    A channel error closes the channel for good, so a closed one is swapped for a new channel on the connection.
+    //    Its unconfirmed messages were already failed by the shutdown listener
+    private PooledChannel getOpenChannel(int index) throws IOException {
+        val pooledChannel = getChannels().get(index);
+        if (pooledChannel.channel.isOpen()) {
+            return pooledChannel;
+        }
+
+        synchronized (this) {
+            val currentChannel = channels.get(index);
+            if (currentChannel.channel.isOpen()) {
+                return currentChannel;
+            }
+
+            logger.warnv("Publisher channel {0} is closed, opening a new one", index);
+            val replacementChannel = openChannel();
+            channels.set(index, replacementChannel);
+            return replacementChannel;
+        }
+    }
+
+    private List<PooledChannel> getChannels() throws IOException {
+        if (Objects.nonNull(channels)) {
+            return channels;
+        }
+
+        synchronized (this) {
+            if (Objects.isNull(channels)) {
+                val pooledChannels = new ArrayList<PooledChannel>(channelCount);
+                for (int i = 0; i < channelCount; i++) {
+                    pooledChannels.add(openChannel());
+                }
+                channels = new CopyOnWriteArrayList<>(pooledChannels);
+            }
+            return channels;
+        }
+    }
+
+    private PooledChannel openChannel() throws IOException {
+        val channel = channelOpener.open();
+        val pooledChannel = new PooledChannel(channel, new ConcurrentSkipListMap<>());
+        channel.confirmSelect();
+        channel.addConfirmListener(new ConfirmListener() {
+            @Override
+            public void handleAck(long deliveryTag, boolean multiple) {
+                settle(pooledChannel, deliveryTag, multiple, true);
+            }
+
+            @Override
+            public void handleNack(long deliveryTag, boolean multiple) {
+                settle(pooledChannel, deliveryTag, multiple, false);
+            }
+        });
+        channel.addShutdownListener(cause -> {
+            logger.warnv("Publisher channel closed with {0} unconfirmed messages: {1}", pooledChannel.outstanding.size(), cause.getMessage());
+            int droppedCount = 0;
+            for (var entry = pooledChannel.outstanding.pollFirstEntry(); Objects.nonNull(entry); entry = pooledChannel.outstanding.pollFirstEntry()) {
+                entry.getValue().confirm.completeExceptionally(new IOException("Publisher channel closed before the broker confirm"));
+                droppedCount++;
+            }
+            inFlightPermits.release(droppedCount);
+        });
+        return pooledChannel;
+    }
+
+    private void settle(PooledChannel pooledChannel, long deliveryTag, boolean multiple, boolean acked) {
+        val confirmedSequenceNumbers = multiple
+                ? pooledChannel.outstanding.headMap(deliveryTag, true).keySet()
+                : Set.of(deliveryTag);
+
+        val now = System.nanoTime();
+        int settledCount = 0;
+        for (val sequenceNumber : confirmedSequenceNumbers) {
+            val pendingPublish = pooledChannel.outstanding.remove(sequenceNumber);
+            if (Objects.isNull(pendingPublish)) {
+                continue;
+            }
+
+            settledCount++;
+            confirmTimer.record(Duration.ofNanos(now - pendingPublish.publishedAt));
+            if (acked) {
+                pendingPublish.confirm.complete(null);
+            } else {
+                nackCounter.increment();
+                logger.warnv("Broker did not accept message published to queue {0}", pendingPublish.queueName);
+                pendingPublish.confirm.completeExceptionally(new IOException("Broker did not accept message published to queue " + pendingPublish.queueName));
+            }
+        }
+        inFlightPermits.release(settledCount);
+    }
+
+    @FunctionalInterface
+    interface ChannelOpener {
+        Channel open() throws IOException;
+
+        default void close() {
+        }
+    }
+
+    //    Opens the publisher connection on the first channel and again after the broker closed it
+    private static class BrokerChannelOpener implements ChannelOpener {
+        private Connection connection;
+
+        @Override
+        public synchronized Channel open() throws IOException {
+            if (Objects.isNull(connection) || !connection.isOpen()) {
+                try {
+                    connection = RabbitConnection.openConnection();
+                } catch (TimeoutException | URISyntaxException | GeneralSecurityException e) {
+                    throw new IOException("Broker connection is not available", e);
+                }
+            }
+
+            return connection.createChannel();
+        }
+
+        @Override
+        public synchronized void close() {
+            if (Objects.isNull(connection) || !connection.isOpen()) {
+                return;
+            }
+
+            try {
+                connection.close();
+            } catch (IOException | RuntimeException e) {
+                logger.warnv("Could not close publisher connection: {0}", e.getMessage());
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class PooledChannel {
+        private final Channel channel;
+        private final ConcurrentSkipListMap<Long, PendingPublish> outstanding;
+    }
+
+    @AllArgsConstructor
+    private static class PendingPublish {
+        private final String queueName;
+        private final long publishedAt;
+        private final CompletableFuture<Void> confirm;
+    }
+}
@@ -1,5 +1,6 @@
 package dev.orion.broker;
 
+import com.rabbitmq.client.BuiltinExchangeType;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
@@ -12,6 +13,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 
@@ -42,22 +44,54 @@ public abstract class RabbitConnection {
     }
 
     private void setupConnectionAndChannel(String host) throws URISyntaxException, NoSuchAlgorithmException, KeyManagementException, IOException, TimeoutException {
-        val activeProfile = ProfileManager.getActiveProfile();
         if (connection == null) {
-            if (activeProfile.equalsIgnoreCase("dev")) {
-                setLocalHost();
-            } else {
-                factory.setUri(host);
-            }
-            connection = factory.newConnection();
+            connection = openConnection(factory, host);
         }
 
         this.channel = connection.createChannel();
-        channel.queueDeclare(queueName,false,false,false,null);
+        declareQueue();
         logger.infov("Listening to queue {0}", queueName);
     }
 
-    private void setLocalHost() {
+    protected void declareQueue() throws IOException {
+        channel.queueDeclare(queueName,false,false,false,null);
+    }
+
+    /**
+     * Declares the queue with a dead-letter exchange, so messages rejected without requeue are routed to the
+     * dead-letter queue instead of being dropped. The broker refuses to declare an existing queue with other
+     * arguments, a queue declared before must be deleted to pick them up.
+     */
+    protected static void declareQueueWithDeadLetter(Channel channel, String queueName, String deadLetterExchange, String deadLetterQueue) throws IOException {
+        channel.exchangeDeclare(deadLetterExchange, BuiltinExchangeType.DIRECT, true);
+        channel.queueDeclare(deadLetterQueue, true, false, false, null);
+        channel.queueBind(deadLetterQueue, deadLetterExchange, deadLetterQueue);
+        channel.queueDeclare(queueName, false, false, false, Map.of(
+                "x-dead-letter-exchange", deadLetterExchange,
+                "x-dead-letter-routing-key", deadLetterQueue));
+    }
+
+    /**
+     * Opens a connection of its own to the configured broker, for components that should not share the consumer
+     * connection, such as publishers that may be throttled by the broker flow control.
+     */
+    public static Connection openConnection() throws IOException, TimeoutException, URISyntaxException, NoSuchAlgorithmException, KeyManagementException {
+        val host = ConfigProvider.getConfig().getOptionalValue("rabbit.host", String.class)
+                .orElseThrow(() -> new IOException("Hosting of rabbitMq empty, not connecting to the broker"));
+        return openConnection(new ConnectionFactory(), host);
+    }
+
+    private static Connection openConnection(ConnectionFactory factory, String host) throws URISyntaxException, NoSuchAlgorithmException, KeyManagementException, IOException, TimeoutException {
+        val activeProfile = ProfileManager.getActiveProfile();
+        if (activeProfile.equalsIgnoreCase("dev")) {
+            setLocalHost(factory);
+        } else {
+            factory.setUri(host);
+        }
+        return factory.newConnection();
+    }
+
+    private static void setLocalHost(ConnectionFactory factory) {
         factory.setUsername(ConfigProvider.getConfig().getValue("rabbit.username", String.class));
         factory.setPassword(ConfigProvider.getConfig().getValue("rabbit.password",String.class));
         factory.setVirtualHost(ConfigProvider.getConfig().getValue("rabbit.virtualHost",String.class));
@@ -0,0 +1,13 @@
+package dev.orion.broker.consumer;
+
+import dev.orion.broker.dto.DocumentEditDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DocumentEditDelivery {
+    private final DocumentEditDto documentEdit;
+    private final long deliveryTag;
+    private final boolean redelivered;
+}
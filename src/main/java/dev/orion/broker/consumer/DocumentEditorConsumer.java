@@ -1,7 +1,7 @@
 package dev.orion.broker.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rabbitmq.client.DeliverCallback;
+import dev.orion.broker.BrokerSerializer;
 import dev.orion.broker.RabbitConnection;
 import dev.orion.broker.dto.DocumentEditDto;
 import dev.orion.services.dto.ActivityExecutionDto;
@@ -12,6 +12,7 @@ import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.logging.Logger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.io.IOException;
@@ -19,29 +20,70 @@ import java.net.URISyntaxException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static java.lang.Boolean.FALSE;
 
 @ApplicationScoped
 public class DocumentEditorConsumer extends RabbitConnection {
 
     static final String QUEUE_NAME = ConfigProvider.getConfig().getOptionalValue("rabbit.queue.consumer.document", String.class).get();
-    static final Boolean AUTO_ACK = true;
+    static final String DEAD_LETTER_EXCHANGE = ConfigProvider.getConfig().getOptionalValue("rabbit.queue.consumer.dead-letter.exchange", String.class).orElse(QUEUE_NAME + ".dead-letter");
+    static final String DEAD_LETTER_QUEUE = ConfigProvider.getConfig().getOptionalValue("rabbit.queue.consumer.dead-letter.queue", String.class).orElse(QUEUE_NAME + ".dead-letter");
+    static final Boolean AUTO_ACK = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.auto-ack", Boolean.class).orElse(true);
+    static final Integer PREFETCH = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.prefetch", Integer.class).orElse(250);
+    static final String FAILURE_POLICY = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.failure-policy", String.class).orElse(FailurePolicy.REQUEUE);
+    static final String MODE = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.mode", String.class).orElse(ConsumerMode.SEQUENTIAL);
+    static final Integer WORKERS = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.workers", Integer.class).orElse(Runtime.getRuntime().availableProcessors());
+    static final Integer PARTITION_QUEUE_DEPTH = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.partition-queue-depth", Integer.class).orElse(256);
+    static final Integer BATCH_SIZE = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.batch-size", Integer.class).orElse(1);
+    static final Long BATCH_WINDOW_MS = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.batch-window-ms", Long.class).orElse(10L);
     @Inject
     ActivityService activityService;
+    @Inject
+    EditDeduplicationCache deduplicationCache;
+    @Inject
+    BrokerSerializer brokerSerializer;
     @LoggerName("DocumentEditorConsumer")
     Logger logger;
+    private PartitionedWorkerPool<DocumentEditDelivery> workerPool;
+    private EditAcknowledger acknowledger;
     DeliverCallback deliverCallback = (consumerTag, delivery) -> {
-        ObjectMapper objectMapper = new ObjectMapper();
-        val documentEdit = objectMapper.readValue(delivery.getBody(), DocumentEditDto.class);
-        logger.info(MessageFormat.format("Message received with {0}", documentEdit.toString()));
+        val envelope = delivery.getEnvelope();
+        DocumentEditDto documentEdit;
         try {
-            val activityExecutionDto = new ActivityExecutionDto(documentEdit.activityId, documentEdit.documentId, documentEdit.externalUserId, documentEdit.documentContent);
-            activityService.execute(activityExecutionDto);
-        } catch (RuntimeException e) {
-            logger.warnv("Activity {0} not let the user {1} edit document", documentEdit.activityId, documentEdit.externalUserId);
-            e.printStackTrace();
+            val properties = delivery.getProperties();
+            documentEdit = brokerSerializer.readDocumentEdit(delivery.getBody(), properties.getContentType(), properties.getContentEncoding());
+        } catch (IOException e) {
+            logger.errorv("Discarding message {0} that could not be read: {1}", envelope.getDeliveryTag(), e.getMessage());
+            acknowledger.discard(envelope.getDeliveryTag());
+            return;
+        }
+        logger.info(MessageFormat.format("Message received with {0}", documentEdit.toString()));
+        if (Objects.isNull(documentEdit.messageKey)) {
+            documentEdit.messageKey = parseMessageKey(delivery.getProperties().getMessageId());
         }
+        val documentEditDelivery = new DocumentEditDelivery(documentEdit, envelope.getDeliveryTag(), envelope.isRedeliver());
 
+        if (Objects.isNull(workerPool)) {
+            executeEdit(documentEditDelivery);
+            return;
+        }
+
+        try {
+            workerPool.submit(documentEdit.activityId, documentEditDelivery);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.errorv("Interrupted while dispatching edit of activity {0}", documentEdit.activityId);
+            acknowledger.requeue(envelope.getDeliveryTag());
+        }
     };
     private Boolean hasStarted = false;
 
@@ -51,6 +93,13 @@ public class DocumentEditorConsumer extends RabbitConnection {
 
     public DocumentEditorConsumer(String queue) throws IOException, TimeoutException, URISyntaxException, NoSuchAlgorithmException, KeyManagementException {
         super(queue);
+        acknowledger = new EditAcknowledger(channel, AUTO_ACK, FAILURE_POLICY);
+    }
+
+    //    Edits rejected by the acknowledger end on the dead-letter queue, where they can be inspected and replayed
+    @Override
+    protected void declareQueue() throws IOException {
+        declareQueueWithDeadLetter(channel, queueName, DEAD_LETTER_EXCHANGE, DEAD_LETTER_QUEUE);
     }
 
     @PostConstruct
@@ -58,12 +107,123 @@ public class DocumentEditorConsumer extends RabbitConnection {
 
     }
 
+    @PreDestroy
+    void shutdownWorkers() {
+        if (Objects.nonNull(workerPool)) {
+            workerPool.shutdown();
+        }
+    }
+
     public void attachQueueListener() throws IOException {
         if (!hasStarted) {
+            setupWorkerPool();
             logger.info(MessageFormat.format("Started listening queue: {0}", QUEUE_NAME));
+            if (FALSE == AUTO_ACK) {
+                channel.basicQos(PREFETCH);
+                logger.infov("Manual acknowledgement enabled with prefetch of {0} messages", PREFETCH);
+            }
             channel.basicConsume(QUEUE_NAME, AUTO_ACK, deliverCallback, consumerTag -> {
             });
             hasStarted = true;
         }
     }
+
+    private void setupWorkerPool() {
+        if (FALSE == ConsumerMode.PARTITIONED.equalsIgnoreCase(MODE)) {
+            return;
+        }
+
+        if (BATCH_SIZE > 1) {
+            workerPool = new PartitionedWorkerPool<>("document-edit-worker", WORKERS, PARTITION_QUEUE_DEPTH, BATCH_SIZE, Duration.ofMillis(BATCH_WINDOW_MS), this::executeEdits);
+            logger.infov("Document edits will run on {0} partitions with queue depth of {1} in batches of up to {2} edits", WORKERS, PARTITION_QUEUE_DEPTH, BATCH_SIZE);
+            return;
+        }
+
+        workerPool = new PartitionedWorkerPool<>("document-edit-worker", WORKERS, PARTITION_QUEUE_DEPTH, this::executeEdit);
+        logger.infov("Document edits will run on {0} partitions with queue depth of {1}", WORKERS, PARTITION_QUEUE_DEPTH);
+    }
+
+    private void executeEdit(DocumentEditDelivery documentEditDelivery) {
+        val documentEdit = documentEditDelivery.getDocumentEdit();
+        if (deduplicationCache.isProcessed(documentEdit.messageKey)) {
+            logger.infov("Edit {0} was already processed, dropping duplicate", documentEdit.messageKey);
+            acknowledger.acknowledge(documentEditDelivery.getDeliveryTag());
+            return;
+        }
+
+        try {
+            activityService.execute(toActivityExecution(documentEdit));
+            deduplicationCache.markProcessed(documentEdit.messageKey);
+            acknowledger.acknowledge(documentEditDelivery.getDeliveryTag());
+        } catch (RuntimeException e) {
+            logger.warnv(e, "Activity {0} not let the user {1} edit document", documentEdit.activityId, documentEdit.externalUserId);
+            acknowledger.reject(documentEditDelivery);
+        }
+    }
+
+    //    The whole batch shares one transaction, so a failure rolls every edit back. Each edit is then run again in its
+    //    own transaction, so only the failing one is rejected and the others are applied and acknowledged once
+    private void executeEdits(List<DocumentEditDelivery> documentEditDeliveries) {
+        val batchKeys = new HashSet<UUID>();
+        val pendingDeliveries = new ArrayList<DocumentEditDelivery>();
+        documentEditDeliveries.forEach(documentEditDelivery -> {
+            val messageKey = documentEditDelivery.getDocumentEdit().messageKey;
+            if (deduplicationCache.isProcessed(messageKey) || (Objects.nonNull(messageKey) && !batchKeys.add(messageKey))) {
+                logger.infov("Edit {0} was already processed, dropping duplicate", messageKey);
+                acknowledger.acknowledge(documentEditDelivery.getDeliveryTag());
+                return;
+            }
+            pendingDeliveries.add(documentEditDelivery);
+        });
+
+        if (pendingDeliveries.isEmpty()) {
+            return;
+        }
+
+        val activityExecutionDtos = pendingDeliveries
+                .stream()
+                .map(documentEditDelivery -> toActivityExecution(documentEditDelivery.getDocumentEdit()))
+                .collect(Collectors.toList());
+        try {
+            activityService.executeBatch(activityExecutionDtos);
+            pendingDeliveries.forEach(documentEditDelivery -> {
+                deduplicationCache.markProcessed(documentEditDelivery.getDocumentEdit().messageKey);
+                acknowledger.acknowledge(documentEditDelivery.getDeliveryTag());
+            });
+        } catch (RuntimeException e) {
+            logger.warnv(e, "Batch of {0} edits could not be executed, executing them one by one", pendingDeliveries.size());
+            pendingDeliveries.forEach(this::executeEdit);
+        }
+    }
+
+    private ActivityExecutionDto toActivityExecution(DocumentEditDto documentEdit) {
+        return new ActivityExecutionDto(documentEdit.activityId, documentEdit.documentId, documentEdit.externalUserId, documentEdit.documentContent, documentEdit.messageKey);
+    }
+
+    private UUID parseMessageKey(String messageId) {
+        if (Objects.isNull(messageId)) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(messageId);
+        } catch (IllegalArgumentException e) {
+            logger.warnv("Message id {0} is not an UUID, edit will not be deduplicated", messageId);
+            return null;
+        }
+    }
+
+    static final class FailurePolicy {
+        static final String REQUEUE = "requeue";
+        static final String DEAD_LETTER = "dead-letter";
+
+        private FailurePolicy() {}
+    }
+
+    static final class ConsumerMode {
+        static final String SEQUENTIAL = "sequential";
+        static final String PARTITIONED = "partitioned";
+
+        private ConsumerMode() {}
+    }
 }
@@ -0,0 +1,73 @@
+package dev.orion.broker.consumer;
+
+import com.rabbitmq.client.Channel;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+
+/**
+ * Settles edit deliveries on the consumer channel. With auto-ack the broker settled them on delivery and nothing is
+ * sent. Under the requeue policy a failed edit goes back to the queue once and is rejected on its second failure,
+ * under the dead-letter policy it is rejected on the first one, so the broker routes it to the dead-letter queue
+ * declared with the edit queue. A requeued edit is delivered again after the edits already prefetched, so edits of the
+ * same activity that follow it may be applied before it; the dead-letter policy keeps the order of the applied edits.
+ */
+public class EditAcknowledger {
+    private static final Logger logger = Logger.getLogger(EditAcknowledger.class);
+
+    private final Channel channel;
+    private final boolean autoAck;
+    private final String failurePolicy;
+
+    public EditAcknowledger(Channel channel, boolean autoAck, String failurePolicy) {
+        this.channel = channel;
+        this.autoAck = autoAck;
+        this.failurePolicy = failurePolicy;
+    }
+
+    public void acknowledge(long deliveryTag) {
+        if (autoAck) {
+            return;
+        }
+
+        try {
+            synchronized (channel) {
+                channel.basicAck(deliveryTag, false);
+            }
+        } catch (IOException e) {
+            logger.errorv("Could not acknowledge message {0}: {1}", deliveryTag, e.getMessage());
+        }
+    }
+
+    //    A failed edit goes back to the queue once, a second failure is rejected to the dead-letter queue
+    public void reject(DocumentEditDelivery documentEditDelivery) {
+        nack(documentEditDelivery.getDeliveryTag(), shouldRequeue(documentEditDelivery));
+    }
+
+    public void requeue(long deliveryTag) {
+        nack(deliveryTag, true);
+    }
+
+    public void discard(long deliveryTag) {
+        nack(deliveryTag, false);
+    }
+
+    boolean shouldRequeue(DocumentEditDelivery documentEditDelivery) {
+        return DocumentEditorConsumer.FailurePolicy.REQUEUE.equalsIgnoreCase(failurePolicy) && !documentEditDelivery.isRedelivered();
+    }
+
+    private void nack(long deliveryTag, boolean requeue) {
+        if (autoAck) {
+            return;
+        }
+
+        try {
+            synchronized (channel) {
+                channel.basicNack(deliveryTag, false, requeue);
+            }
+            logger.warnv("Message {0} rejected, requeue: {1}", deliveryTag, requeue);
+        } catch (IOException e) {
+            logger.errorv("Could not reject message {0}: {1}", deliveryTag, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package dev.orion.broker.consumer;
+
+import dev.orion.util.cache.LocalTtlCache;
+import io.quarkus.arc.log.LoggerName;
+import io.quarkus.redis.client.RedisClient;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+
+import static java.lang.Boolean.FALSE;
+
+/**
+ * Remembers the idempotency keys of the edits already applied, so a redelivered edit can be dropped before it
+ * reaches the database. Keys live in a local LRU cache and, when enabled, in Redis to be shared between instances.
+ */
+@ApplicationScoped
+public class EditDeduplicationCache {
+    static final Integer MAX_ENTRIES = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.dedup.max-entries", Integer.class).orElse(100_000);
+    static final Long TTL_SECONDS = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.dedup.ttl-seconds", Long.class).orElse(600L);
+    static final Boolean REDIS_ENABLED = ConfigProvider.getConfig().getOptionalValue("rabbit.consumer.document.dedup.redis-enabled", Boolean.class).orElse(false);
+    static final String REDIS_KEY_PREFIX = "activity:processed-edit:";
+
+    @Inject
+    Instance<RedisClient> redisClient;
+
+    @LoggerName("EditDeduplicationCache")
+    Logger logger;
+
+    private final LocalTtlCache<UUID, Boolean> processedKeys = new LocalTtlCache<>(MAX_ENTRIES, Duration.ofSeconds(TTL_SECONDS));
+
+    public boolean isProcessed(UUID messageKey) {
+        if (Objects.isNull(messageKey)) {
+            return false;
+        }
+
+        if (processedKeys.contains(messageKey)) {
+            return true;
+        }
+
+        if (FALSE == REDIS_ENABLED) {
+            return false;
+        }
+
+        try {
+            val isProcessed = Objects.nonNull(redisClient.get().get(REDIS_KEY_PREFIX + messageKey));
+            if (isProcessed) {
+                processedKeys.put(messageKey, true);
+            }
+            return isProcessed;
+        } catch (RuntimeException e) {
+            logger.warnv("Could not check edit {0} on Redis, relying on local cache only: {1}", messageKey, e.getMessage());
+            return false;
+        }
+    }
+
+    public void markProcessed(UUID messageKey) {
+        if (Objects.isNull(messageKey)) {
+            return;
+        }
+
+        processedKeys.put(messageKey, true);
+        if (FALSE == REDIS_ENABLED) {
+            return;
+        }
+
+        try {
+            redisClient.get().setex(REDIS_KEY_PREFIX + messageKey, TTL_SECONDS.toString(), "1");
+        } catch (RuntimeException e) {
+            logger.warnv("Could not store edit {0} on Redis: {1}", messageKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package dev.orion.broker.consumer;
+
+import lombok.val;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs items on a fixed number of single threaded partitions. Items submitted with the same key always land on the
+ * same partition, so they are handled strictly in submission order while different keys run in parallel.
+ * Each partition has a bounded queue; {@link #submit(Object, Object)} blocks while the target partition is full.
+ * When a batch size above one is given, a worker hands over up to that many queued items at once, waiting at most
+ * the batch window for the batch to fill.
+ */
+public class PartitionedWorkerPool<T> {
+    private static final Logger logger = Logger.getLogger(PartitionedWorkerPool.class);
+
+    private final List<BlockingQueue<T>> partitions = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Consumer<List<T>> handler;
+    private final int batchSize;
+    private final long batchWindowNanos;
+    private volatile boolean running = true;
+
+    public PartitionedWorkerPool(String name, int workerCount, int queueDepth, Consumer<T> handler) {
+        this(name, workerCount, queueDepth, 1, Duration.ZERO, items -> items.forEach(handler));
+    }
+
+    public PartitionedWorkerPool(String name, int workerCount, int queueDepth, int batchSize, Duration batchWindow, Consumer<List<T>> handler) {
+        if (workerCount < 1 || queueDepth < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Worker count, queue depth and batch size must be greater than zero");
+        }
+        this.handler = handler;
+        this.batchSize = batchSize;
+        this.batchWindowNanos = batchWindow.toNanos();
+
+        for (int i = 0; i < workerCount; i++) {
+            val queue = new ArrayBlockingQueue<T>(queueDepth);
+            val worker = new Thread(() -> work(queue), name + "-" + i);
+            worker.setDaemon(true);
+
+            partitions.add(queue);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    public void submit(Object key, T item) throws InterruptedException {
+        partitions.get(partitionOf(key)).put(item);
+    }
+
+    public int partitionOf(Object key) {
+        return Math.floorMod(key.hashCode(), partitions.size());
+    }
+
+    public int getQueueDepth(int partition) {
+        return partitions.get(partition).size();
+    }
+
+    public int getWorkerCount() {
+        return partitions.size();
+    }
+
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void work(BlockingQueue<T> queue) {
+        while (running) {
+            try {
+                handler.accept(takeBatch(queue));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.errorv("Unexpected error on partition worker {0}: {1}", Thread.currentThread().getName(), e);
+            }
+        }
+    }
+
+    private List<T> takeBatch(BlockingQueue<T> queue) throws InterruptedException {
+        val batch = new ArrayList<T>(batchSize);
+        batch.add(queue.take());
+
+        val deadline = System.nanoTime() + batchWindowNanos;
+        while (batch.size() < batchSize) {
+            val remaining = deadline - System.nanoTime();
+            val item = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (Objects.isNull(item)) {
+                break;
+            }
+            batch.add(item);
+        }
+
+        return batch;
+    }
+}
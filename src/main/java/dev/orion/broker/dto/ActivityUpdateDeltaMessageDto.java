@@ -0,0 +1,44 @@
+package dev.orion.broker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.UUIDSerializer;
+import dev.orion.commom.constant.ActivityStage;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Activity update carrying only what changed since the message with version {@code baseVersion}. A snapshot has no
+ * base version and carries the whole state, consumers that missed a version must wait for the next snapshot.
+ * Fields left null did not change.
+ */
+@NoArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ActivityUpdateDeltaMessageDto {
+    @JsonSerialize(using = UUIDSerializer.class)
+    public UUID uuid;
+    public Long version;
+    public Long baseVersion;
+    public Boolean snapshot;
+    public Set<String> participants;
+    public Set<String> addedParticipants;
+    public Set<String> removedParticipants;
+    public Boolean isActive;
+    public ActivityStage activityStage;
+    public Set<ActivityUpdateMessageDto.UserError> performErrors = new HashSet<>();
+    private String createdAt = LocalDateTime.now().toString();
+    @JsonSerialize(using = UUIDSerializer.class)
+    private UUID messageKey;
+
+    public ActivityUpdateDeltaMessageDto(UUID uuid, Long version, UUID messageKey) {
+        this.uuid = uuid;
+        this.version = version;
+        this.messageKey = messageKey;
+    }
+}
@@ -8,6 +8,7 @@ import dev.orion.entity.Activity;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.val;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -47,6 +48,20 @@ public class ActivityUpdateMessageDto {
         this.activityStage = activity.getActualStage();
     }
 
+    /**
+     * Copy of this update without the errors, which are only meant for the users that caused them.
+     */
+    public ActivityUpdateMessageDto withoutErrors() {
+        val activityUpdate = new ActivityUpdateMessageDto();
+        activityUpdate.uuid = uuid;
+        activityUpdate.participants = participants;
+        activityUpdate.isActive = isActive;
+        activityUpdate.activityStage = activityStage;
+        activityUpdate.createdAt = createdAt;
+        activityUpdate.messageKey = messageKey;
+        return activityUpdate;
+    }
+
 
 
     public static UserError.UserErrorBuilder getErrorBuilder() {
@@ -22,4 +22,8 @@ public class DocumentEditDto {
 
     @NotBlank
     public  String documentId;
+
+    //    Idempotency key chosen by the producer, reused as messageKey of the updates sent for this edit
+    @JsonSerialize(using = UUIDSerializer.class)
+    public UUID messageKey;
 }
@@ -0,0 +1,60 @@
+package dev.orion.broker.outbox;
+
+import com.rabbitmq.client.AMQP;
+import dev.orion.broker.PublisherChannelPool;
+import dev.orion.entity.OutboxMessage;
+import lombok.val;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes one batch of an outbox partition and deletes it in the same transaction once the broker confirmed every
+ * message. Any failure rolls the deletion back, so the batch is published again on the next run (at least once).
+ */
+@ApplicationScoped
+public class OutboxDrainer {
+    @Inject
+    PublisherChannelPool publisherChannelPool;
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public int reassignPartitions(int partitionCount) {
+        return OutboxMessage.reassignRelayPartitions(partitionCount);
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public int drainBatch(int partition, int batchSize, long confirmTimeoutMs) throws IOException {
+        val outboxMessages = OutboxMessage.findNextBatch(partition, batchSize);
+        if (outboxMessages.isEmpty()) {
+            return 0;
+        }
+
+        val confirms = new ArrayList<CompletableFuture<Void>>(outboxMessages.size());
+        for (val outboxMessage : outboxMessages) {
+            val messageProperties = new AMQP.BasicProperties.Builder()
+                    .contentType(outboxMessage.getContentType())
+                    .contentEncoding(outboxMessage.getContentEncoding())
+                    .build();
+            confirms.add(publisherChannelPool.publish(outboxMessage.getQueueName(), outboxMessage.getPartitionKey(), messageProperties, outboxMessage.getPayload()));
+        }
+
+        try {
+            CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new)).get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for outbox confirms", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("Outbox batch was not confirmed by the broker", e);
+        }
+
+        outboxMessages.forEach(OutboxMessage::delete);
+        return outboxMessages.size();
+    }
+}
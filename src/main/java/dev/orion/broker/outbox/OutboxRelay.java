@@ -0,0 +1,82 @@
+package dev.orion.broker.outbox;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.runtime.configuration.ProfileManager;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.Boolean.FALSE;
+
+/**
+ * Drains the outbox table to the broker in the background. Messages are assigned to a worker when they are written,
+ * by their partition modulo the parallelism, which keeps messages with the same ordering key in order while partitions drain
+ * in parallel. A worker keeps draining while it finds full batches and otherwise waits for the poll interval.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+    static final Integer BATCH_SIZE = ConfigProvider.getConfig().getOptionalValue("activity.outbox.batch-size", Integer.class).orElse(100);
+    static final Integer PARALLELISM = ConfigProvider.getConfig().getOptionalValue("activity.outbox.parallelism", Integer.class).orElse(2);
+    static final Long POLL_INTERVAL_MS = ConfigProvider.getConfig().getOptionalValue("activity.outbox.poll-interval-ms", Long.class).orElse(200L);
+    static final Long CONFIRM_TIMEOUT_MS = ConfigProvider.getConfig().getOptionalValue("activity.outbox.confirm-timeout-ms", Long.class).orElse(5000L);
+    private static final Logger logger = Logger.getLogger(OutboxRelay.class);
+
+    @Inject
+    OutboxWriter outboxWriter;
+
+    @Inject
+    OutboxDrainer outboxDrainer;
+
+    private ScheduledExecutorService scheduler;
+
+    void onStart(@Observes StartupEvent ev) {
+        if (FALSE == outboxWriter.isEnabled() || "test".equalsIgnoreCase(ProfileManager.getActiveProfile())) {
+            return;
+        }
+
+        val reassignedCount = outboxDrainer.reassignPartitions(PARALLELISM);
+        if (reassignedCount > 0) {
+            logger.infov("Moved {0} outbox messages to the workers of the current parallelism", reassignedCount);
+        }
+
+        val threadCount = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(PARALLELISM, runnable -> {
+            val thread = new Thread(runnable, "outbox-relay-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int partition = 0; partition < PARALLELISM; partition++) {
+            val workerPartition = partition;
+            scheduler.scheduleWithFixedDelay(() -> drain(workerPartition), POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+        logger.infov("Outbox relay started with {0} workers", PARALLELISM);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (Objects.nonNull(scheduler)) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void drain(int partition) {
+        try {
+            while (outboxDrainer.drainBatch(partition, BATCH_SIZE, CONFIRM_TIMEOUT_MS) == BATCH_SIZE) {
+                logger.debugv("Outbox partition {0} still has a backlog, draining next batch", partition);
+            }
+        } catch (Exception e) {
+            logger.warnv("Could not drain outbox partition {0}, retrying on next poll: {1}", partition, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dev.orion.broker.outbox;
+
+import dev.orion.broker.EncodedMessage;
+import dev.orion.entity.OutboxMessage;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Transactional;
+
+/**
+ * Stores outgoing broker messages in the outbox table, joining the caller's transaction so a message only exists
+ * once the entity change that produced it is committed. {@link OutboxRelay} publishes them afterwards.
+ */
+@ApplicationScoped
+public class OutboxWriter {
+    static final Boolean ENABLED = ConfigProvider.getConfig().getOptionalValue("activity.outbox.enabled", Boolean.class).orElse(false);
+
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Transactional(Transactional.TxType.REQUIRED)
+    public void enqueue(String queueName, Object orderingKey, EncodedMessage message) {
+        new OutboxMessage(queueName, orderingKey, OutboxRelay.PARALLELISM, message.getContentType(), message.getContentEncoding(), message.getBody()).persist();
+    }
+}
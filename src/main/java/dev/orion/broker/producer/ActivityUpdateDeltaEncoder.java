@@ -0,0 +1,105 @@
+package dev.orion.broker.producer;
+
+import dev.orion.broker.dto.ActivityUpdateDeltaMessageDto;
+import dev.orion.broker.dto.ActivityUpdateMessageDto;
+import dev.orion.commom.constant.ActivityStage;
+import dev.orion.util.cache.LocalTtlCache;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns full activity updates into deltas against the last update sent for the same activity. Versions come from one
+ * counter seeded with the start time, so they keep growing for an activity even after its state was evicted or the
+ * service restarted. An activity without known state, or whose last snapshot is snapshotInterval versions old,
+ * gets a full snapshot instead. An encoding only becomes the base of the next delta once it is committed, after its
+ * message was handed over; an encoding whose base moved in the meantime drops the state, forcing a snapshot.
+ * The state lives in this instance only: with several producer instances publishing updates of the same activity
+ * their deltas would interleave against different bases, so such deployments must use the snapshot format.
+ */
+public class ActivityUpdateDeltaEncoder {
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final LocalTtlCache<UUID, EncodedState> encodedStates;
+    private final int snapshotInterval;
+
+    public ActivityUpdateDeltaEncoder(int maxActivities, Duration stateTtl, int snapshotInterval) {
+        this.encodedStates = new LocalTtlCache<>(maxActivities, stateTtl);
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public synchronized Encoding encode(ActivityUpdateMessageDto activityUpdate) {
+        val previousState = encodedStates.get(activityUpdate.uuid);
+        val delta = new ActivityUpdateDeltaMessageDto(activityUpdate.uuid, versions.incrementAndGet(), activityUpdate.getMessageKey());
+        delta.performErrors.addAll(activityUpdate.performErrors);
+
+        val isSnapshot = previousState.isEmpty() || previousState.get().deltasSinceSnapshot + 1 >= snapshotInterval;
+        if (isSnapshot) {
+            delta.snapshot = true;
+            delta.participants = new HashSet<>(activityUpdate.participants);
+            delta.isActive = activityUpdate.isActive;
+            delta.activityStage = activityUpdate.activityStage;
+        } else {
+            val state = previousState.get();
+            delta.snapshot = false;
+            delta.baseVersion = state.version;
+            delta.addedParticipants = difference(activityUpdate.participants, state.participants);
+            delta.removedParticipants = difference(state.participants, activityUpdate.participants);
+            delta.isActive = Objects.equals(state.isActive, activityUpdate.isActive) ? null : activityUpdate.isActive;
+            delta.activityStage = Objects.equals(state.activityStage, activityUpdate.activityStage) ? null : activityUpdate.activityStage;
+        }
+
+        val deltasSinceSnapshot = isSnapshot ? 0 : previousState.get().deltasSinceSnapshot + 1;
+        val encodedState = new EncodedState(delta.version, new HashSet<>(activityUpdate.participants), activityUpdate.isActive, activityUpdate.activityStage, deltasSinceSnapshot);
+        return new Encoding(delta, previousState.map(state -> state.version).orElse(null), encodedState);
+    }
+
+    //    Used when a sent message is lost after all, the next update of the activity is a snapshot
+    public synchronized void invalidate(UUID activityUuid) {
+        encodedStates.invalidate(activityUuid);
+    }
+
+    private synchronized void commit(Encoding encoding) {
+        val activityUuid = encoding.delta.uuid;
+        val currentVersion = encodedStates.get(activityUuid).map(state -> state.version).orElse(null);
+        if (Objects.equals(currentVersion, encoding.previousVersion)) {
+            encodedStates.put(activityUuid, encoding.encodedState);
+            return;
+        }
+
+        encodedStates.invalidate(activityUuid);
+    }
+
+    private static Set<String> difference(Set<String> from, Set<String> removing) {
+        val result = new HashSet<>(from);
+        result.removeAll(removing);
+        return result.isEmpty() ? null : result;
+    }
+
+    @AllArgsConstructor
+    public class Encoding {
+        @Getter
+        private final ActivityUpdateDeltaMessageDto delta;
+        private final Long previousVersion;
+        private final EncodedState encodedState;
+
+        public void commit() {
+            ActivityUpdateDeltaEncoder.this.commit(this);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class EncodedState {
+        private final long version;
+        private final Set<String> participants;
+        private final Boolean isActive;
+        private final ActivityStage activityStage;
+        private final int deltasSinceSnapshot;
+    }
+}
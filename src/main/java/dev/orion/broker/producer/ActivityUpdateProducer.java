@@ -1,39 +1,164 @@
 package dev.orion.broker.producer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.rabbitmq.client.AMQP;
-import dev.orion.broker.RabbitConnection;
+import dev.orion.broker.BrokerSerializer;
+import dev.orion.broker.EncodedMessage;
+import dev.orion.broker.PublisherChannelPool;
 import dev.orion.broker.dto.ActivityUpdateMessageDto;
+import dev.orion.broker.outbox.OutboxWriter;
 import io.quarkus.arc.log.LoggerName;
 import lombok.val;
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.logging.Logger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
-import java.util.concurrent.TimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @ApplicationScoped
-public class ActivityUpdateProducer extends RabbitConnection {
+public class ActivityUpdateProducer {
     @LoggerName("ActivityUpdateProducer")
     Logger logger;
+    @Inject
+    PublisherChannelPool publisherChannelPool;
+    @Inject
+    OutboxWriter outboxWriter;
+    @Inject
+    BrokerSerializer brokerSerializer;
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
 
     static final String QUEUE_NAME = ConfigProvider.getConfig().getValue("rabbit.queue.producer.activity", String.class);
+    static final Long COALESCE_WINDOW_MS = ConfigProvider.getConfig().getOptionalValue("rabbit.producer.activity.coalesce-window-ms", Long.class).orElse(0L);
+    static final String FORMAT = ConfigProvider.getConfig().getOptionalValue("rabbit.producer.activity.format", String.class).orElse(MessageFormats.SNAPSHOT);
+    static final Integer SNAPSHOT_INTERVAL = ConfigProvider.getConfig().getOptionalValue("rabbit.producer.activity.snapshot-interval", Integer.class).orElse(50);
+    static final Integer DELTA_MAX_ACTIVITIES = ConfigProvider.getConfig().getOptionalValue("rabbit.producer.activity.delta-max-activities", Integer.class).orElse(10_000);
+    static final Long DELTA_STATE_TTL_SECONDS = ConfigProvider.getConfig().getOptionalValue("rabbit.producer.activity.delta-state-ttl-seconds", Long.class).orElse(3600L);
 
-    public ActivityUpdateProducer() throws IOException, TimeoutException, URISyntaxException, NoSuchAlgorithmException, KeyManagementException {
-        super(QUEUE_NAME);
+    private UpdateCoalescer<UUID, ActivityUpdateMessageDto> coalescer;
+    private ActivityUpdateDeltaEncoder deltaEncoder;
+
+    @PostConstruct
+    void setupEncoding() {
+        if (MessageFormats.DELTA.equalsIgnoreCase(FORMAT)) {
+            deltaEncoder = new ActivityUpdateDeltaEncoder(DELTA_MAX_ACTIVITIES, Duration.ofSeconds(DELTA_STATE_TTL_SECONDS), SNAPSHOT_INTERVAL);
+        }
+
+        if (COALESCE_WINDOW_MS <= 0) {
+            return;
+        }
+
+        if (outboxWriter.isEnabled()) {
+            logger.info("Activity updates are not coalesced with the outbox enabled, each update is written in its own transaction");
+            return;
+        }
+
+        coalescer = new UpdateCoalescer<>("activity-update-coalescer", Duration.ofMillis(COALESCE_WINDOW_MS), ActivityUpdateProducer::mergeUpdates, activityUpdate -> {
+            try {
+                dispatch(activityUpdate);
+            } catch (IOException e) {
+                logger.errorv("Error when trying to send coalesced update of activity {0} to queue. Exception: {1}", activityUpdate.uuid, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdownCoalescer() {
+        if (Objects.nonNull(coalescer)) {
+            coalescer.shutdown();
+        }
     }
 
+    //    With a coalesce window, updates of the same activity committed within the window go out as a single message.
+    //    An update only reaches the coalescer once its transaction commits, so rolled back states are never sent
     public void sendMessage(ActivityUpdateMessageDto editorUpdateQueueDto) throws IOException {
-        val messageProperties = new AMQP.BasicProperties.Builder().contentType("application/json").build();
-        val objectMapper = new ObjectMapper();
-        byte[] msg = objectMapper.writeValueAsBytes(editorUpdateQueueDto);
+        if (Objects.isNull(coalescer)) {
+            dispatch(editorUpdateQueueDto);
+            return;
+        }
+
+        runAfterCommit(() -> coalescer.offer(editorUpdateQueueDto.uuid, editorUpdateQueueDto));
+    }
+
+    private void dispatch(ActivityUpdateMessageDto editorUpdateQueueDto) throws IOException {
+        if (Objects.isNull(deltaEncoder)) {
+            send(editorUpdateQueueDto.uuid, brokerSerializer.writeActivityUpdate(editorUpdateQueueDto));
+            return;
+        }
+
+//        The delta state only advances once the message is in the outbox of a committed transaction or on a channel,
+//        a message that was never sent must not become the base of the next delta
+        val encoding = deltaEncoder.encode(editorUpdateQueueDto);
+        val confirm = send(editorUpdateQueueDto.uuid, brokerSerializer.writeActivityUpdateDelta(encoding.getDelta()));
+        if (Objects.isNull(confirm)) {
+            runAfterCommit(encoding::commit);
+            return;
+        }
+
+        encoding.commit();
+        confirm.whenComplete((ignored, e) -> {
+            if (Objects.nonNull(e)) {
+                deltaEncoder.invalidate(editorUpdateQueueDto.uuid);
+            }
+        });
+    }
+
+    //    Returns the broker confirm of a direct publish, or null when the message was written to the outbox
+    private CompletableFuture<Void> send(UUID activityUuid, EncodedMessage message) throws IOException {
+        if (outboxWriter.isEnabled()) {
+            outboxWriter.enqueue(QUEUE_NAME, activityUuid, message);
+            return null;
+        }
+
+        val confirm = publisherChannelPool.publish(QUEUE_NAME, activityUuid, message.toProperties(), message.getBody());
+        logger.info(MessageFormat.format("Activity ({0}) update sent to queue {1}", activityUuid, QUEUE_NAME));
+        confirm.whenComplete((ignored, e) -> {
+            if (Objects.nonNull(e)) {
+                logger.errorv("Activity ({0}) update was not confirmed by the broker: {1}", activityUuid, e.getMessage());
+            }
+        });
+        return confirm;
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            action.run();
+            return;
+        }
+
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    //    The latest update carries the current state, errors of the updates it replaces must still reach the users
+    private static ActivityUpdateMessageDto mergeUpdates(ActivityUpdateMessageDto previous, ActivityUpdateMessageDto latest) {
+        previous.performErrors.forEach(latest::addError);
+        return latest;
+    }
+
+    static final class MessageFormats {
+        static final String SNAPSHOT = "snapshot";
+        static final String DELTA = "delta";
 
-        channel.basicPublish("", QUEUE_NAME, messageProperties, msg);
-        logger.info(MessageFormat.format("Activity ({0}) update sent to queue {1}", editorUpdateQueueDto.uuid, QUEUE_NAME));
+        private MessageFormats() {}
     }
 }
\ No newline at end of file
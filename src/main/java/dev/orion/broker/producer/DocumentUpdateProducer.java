@@ -1,39 +1,51 @@
 package dev.orion.broker.producer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.rabbitmq.client.AMQP;
-import dev.orion.broker.RabbitConnection;
+import dev.orion.broker.BrokerSerializer;
+import dev.orion.broker.EncodedMessage;
+import dev.orion.broker.PublisherChannelPool;
 import dev.orion.broker.dto.DocumentUpdateDto;
+import dev.orion.broker.outbox.OutboxWriter;
 import dev.orion.entity.Document;
 import dev.orion.entity.User;
+import io.quarkus.arc.log.LoggerName;
+import lombok.val;
 import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.util.concurrent.TimeoutException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 @ApplicationScoped
-public class DocumentUpdateProducer extends RabbitConnection {
+public class DocumentUpdateProducer {
+    @LoggerName("DocumentUpdateProducer")
+    Logger logger;
+    @Inject
+    PublisherChannelPool publisherChannelPool;
+    @Inject
+    OutboxWriter outboxWriter;
+    @Inject
+    BrokerSerializer brokerSerializer;
 
     static final String QUEUE_NAME = ConfigProvider.getConfig().getValue("rabbit.queue.producer.document", String.class);
 
-    public DocumentUpdateProducer() throws IOException, TimeoutException, URISyntaxException, NoSuchAlgorithmException, KeyManagementException {
-        this(QUEUE_NAME);
-    }
-
-
-    public DocumentUpdateProducer(String QUEUE_NAME) throws IOException, TimeoutException, URISyntaxException, NoSuchAlgorithmException, KeyManagementException {
-        super(QUEUE_NAME);
-    }
-
-    public void sendMessage(DocumentUpdateDto documentUpdateDto) throws IOException {
-        AMQP.BasicProperties messageProperties = new AMQP.BasicProperties.Builder().contentType("application/json").build();
-        ObjectMapper objectMapper = new ObjectMapper();
-        byte[] msg = objectMapper.writeValueAsBytes(documentUpdateDto);
-
-        channel.basicPublish("", QUEUE_NAME, messageProperties, msg);
+    //    Returns the broker confirm of a direct publish, or null when the message was written to the outbox
+    public CompletableFuture<Void> sendMessage(DocumentUpdateDto documentUpdateDto) throws IOException {
+        EncodedMessage message = brokerSerializer.writeDocumentUpdate(documentUpdateDto);
+
+        if (outboxWriter.isEnabled()) {
+            outboxWriter.enqueue(QUEUE_NAME, documentUpdateDto.id, message);
+            return null;
+        }
+
+        val confirm = publisherChannelPool.publish(QUEUE_NAME, documentUpdateDto.id, message.toProperties(), message.getBody());
+        confirm.whenComplete((ignored, e) -> {
+            if (Objects.nonNull(e)) {
+                logger.errorv("Document ({0}) update was not confirmed by the broker: {1}", documentUpdateDto.id, e.getMessage());
+            }
+        });
+        return confirm;
     }
 }
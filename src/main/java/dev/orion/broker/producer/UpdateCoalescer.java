@@ -0,0 +1,76 @@
+package dev.orion.broker.producer;
+
+import lombok.val;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Holds updates for a short window and merges every update offered for the same key in the meantime, so only one
+ * merged update per key is flushed when the window closes. The window starts with the first update of a key.
+ */
+public class UpdateCoalescer<K, V> {
+    private static final Logger logger = Logger.getLogger(UpdateCoalescer.class);
+
+    private final Map<K, V> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long windowNanos;
+    private final BinaryOperator<V> merger;
+    private final Consumer<V> flusher;
+
+    public UpdateCoalescer(String name, Duration window, BinaryOperator<V> merger, Consumer<V> flusher) {
+        this.windowNanos = window.toNanos();
+        this.merger = merger;
+        this.flusher = flusher;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            val thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void offer(K key, V update) {
+        val isFirstUpdate = new boolean[]{false};
+        pending.compute(key, (ignored, previous) -> {
+            if (Objects.isNull(previous)) {
+                isFirstUpdate[0] = true;
+                return update;
+            }
+            return merger.apply(previous, update);
+        });
+
+        if (isFirstUpdate[0]) {
+            scheduler.schedule(() -> flush(key), windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+        pending.keySet().forEach(this::flush);
+    }
+
+    private void flush(K key) {
+        val update = pending.remove(key);
+        if (Objects.isNull(update)) {
+            return;
+        }
+
+        try {
+            flusher.accept(update);
+        } catch (RuntimeException e) {
+            logger.errorv("Could not flush coalesced update of {0}: {1}", key, e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.orion.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -7,10 +8,12 @@ import com.fasterxml.jackson.databind.deser.std.UUIDDeserializer;
 import com.fasterxml.jackson.databind.ser.std.UUIDSerializer;
 import dev.orion.commom.constant.ActivityStage;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.val;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
@@ -36,7 +39,6 @@ public class Activity extends PanacheEntityBase {
     public List<GroupActivity> groupActivities = new ArrayList<>();
 
     @OneToMany(mappedBy = "activity", cascade = CascadeType.PERSIST)
-    @OrderColumn
     @JsonManagedReference
     public Set<User> participants = new LinkedHashSet<>();
 
@@ -55,6 +57,17 @@ public class Activity extends PanacheEntityBase {
 
     LocalDateTime updatedAt;
 
+    //    Bumped on every change of the activity or of its participants, groups and documents, identifies the state
+    //    served to clients. Only written by touch, so entity updates never overwrite it with a stale value
+    @Column(nullable = false, updatable = false)
+    private Long version = 0L;
+
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean touched;
+
     @PrePersist
     void createdAtUpdate() {
         this.createdAt = this.updatedAt = LocalDateTime.now();
@@ -69,6 +82,70 @@ public class Activity extends PanacheEntityBase {
         return Activity.findByIdOptional((Object) id);
     }
 
+    public static List<Activity> findAllByIds(Collection<UUID> ids) {
+        return list("uuid in ?1", ids);
+    }
+
+    /**
+     * Loads everything an edit needs in a single row: the document reached through its group and the owning
+     * activity, with the activity creator and workflow, and the participant with its activity and group. Whether the
+     * participant belongs to the activity is a scalar of the same row, so no participant set is joined; the two
+     * participant sets of the document follow in one select each. Empty when any of the three does not exist or the
+     * document is not in the activity.
+     */
+    public static Optional<ExecutionContext> fetchExecutionContext(UUID activityUuid, String documentExternalId, String userExternalId) {
+        List<Object[]> rows = getEntityManager()
+                .createQuery("select d, u, case when u.activity.uuid = :activityUuid then 1 else 0 end " +
+                        "from Document d " +
+                        "join fetch d.groupActivity g " +
+                        "join fetch g.activityOwner a " +
+                        "join fetch a.creator " +
+                        "join fetch a.workflow " +
+                        "left join fetch d.userStarter, " +
+                        "User u " +
+                        "left join fetch u.activity " +
+                        "left join fetch u.groupActivity " +
+                        "where a.uuid = :activityUuid and d.externalId = :documentExternalId and u.externalId = :userExternalId", Object[].class)
+                .setParameter("activityUuid", activityUuid)
+                .setParameter("documentExternalId", documentExternalId)
+                .setParameter("userExternalId", userExternalId)
+                .getResultList();
+
+        return rows.stream().findFirst().map(row -> {
+            val document = (Document) row[0];
+            return new ExecutionContext(
+                    document.getGroupActivity().getActivityOwner(),
+                    document,
+                    (User) row[1],
+                    ((Number) row[2]).intValue() == 1);
+        });
+    }
+
+    public static Optional<Long> findVersion(UUID uuid) {
+        return getEntityManager()
+                .createQuery("select a.version from Activity a where a.uuid = :uuid", Long.class)
+                .setParameter("uuid", uuid)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Moves the version for any change served to clients, on the activity row or stored elsewhere such as
+     * participants, groups and documents. The version is incremented in place by the database, so concurrent writers
+     * wait on the row instead of failing, and only once per transaction. The new value is read back from the row this
+     * transaction now locks, so it is the one that commits even when the loaded entity was stale. Does nothing for an
+     * activity that is not managed.
+     */
+    public void touch() {
+        if (touched || !isPersistent()) {
+            return;
+        }
+
+        update("version = version + 1 where uuid = ?1", uuid);
+        version = findVersion(uuid).orElseThrow();
+        touched = true;
+    }
+
     public void addParticipant(User user) {
         user.setActivity(this);
         participants.add(user);
@@ -84,6 +161,15 @@ public class Activity extends PanacheEntityBase {
         this.groupActivities.add(groupActivity);
     }
 
+    @Getter
+    @AllArgsConstructor
+    public static class ExecutionContext {
+        private final Activity activity;
+        private final Document document;
+        private final User participant;
+        private final boolean participantInActivity;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,8 +3,11 @@ package dev.orion.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import javax.persistence.*;
 import java.util.*;
@@ -12,25 +15,31 @@ import java.util.*;
 @Entity
 @Getter
 @Setter
+@Table(indexes = @Index(name = "IDX_DOCUMENT_GROUP_ACTIVITY", columnList = "groupActivity_id, remainingWriters, rounds"))
 public class Document extends PanacheEntity {
     @Column(nullable = false, unique = true)
     private String externalId;
 
-    @OrderColumn
+    //    Participant sets are plain join tables without a position column, moving writers between them only touches
+    //    the moved rows and the inserts go out in JDBC batches. Sets not join fetched by a query are loaded for every
+    //    document of that query in one subselect
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @JoinTable(
             name = "DOCUMENT_EDITORS",
             joinColumns = @JoinColumn(name = "document_id"),
-            inverseJoinColumns = @JoinColumn(name = "participant_id")
+            inverseJoinColumns = @JoinColumn(name = "participant_id"),
+            indexes = @Index(name = "IDX_DOCUMENT_EDITORS_PARTICIPANT", columnList = "participant_id, document_id")
     )
     private Set<User> participantsThatEdited = new LinkedHashSet<>();
 
-    @OrderColumn
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @JoinTable(
             name = "ASSIGNED_PARTICIPANTS",
             joinColumns = @JoinColumn(name = "document_id"),
-            inverseJoinColumns = @JoinColumn(name = "participant_id")
+            inverseJoinColumns = @JoinColumn(name = "participant_id"),
+            indexes = @Index(name = "IDX_ASSIGNED_PARTICIPANTS_PARTICIPANT", columnList = "participant_id, document_id")
     )
     private Set<User> participantsAssigned = new LinkedHashSet<>();
 
@@ -45,19 +54,91 @@ public class Document extends PanacheEntity {
 
     private Integer rounds = 1;
 
+    //    Assigned participants that still have to write in this round, kept in step with participantsAssigned so
+    //    round completion can be checked and counted without reading the join tables
+    @Column(nullable = false)
+    private Integer remainingWriters = 0;
+
+    //    Turn of the writer that has to edit next when the document follows an ordered rotation
+    @Column(nullable = false)
+    private Integer turnPosition = 0;
+
+    //    Bumped on every change of participantsAssigned, anything derived from the assigned writers stays valid while
+    //    this number does not move, without reading the set again
+    @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Integer participantsVersion = 0;
+
     public void addParticipant(User user) {
-        participantsAssigned.add(user);
+        if (participantsAssigned.add(user)) {
+            remainingWriters++;
+            participantsVersion++;
+        }
     }
     public void removeParticipant(User user) {
-        participantsAssigned.remove(user);
+        if (participantsAssigned.remove(user)) {
+            remainingWriters--;
+            participantsVersion++;
+        }
     }
 
     public void assignMultipleParticipants(Set<User> users) {
-        participantsAssigned.addAll(users);
+        users.forEach(this::addParticipant);
     }
+
+    //    Changed in place, replacing the managed set would delete and insert again every row of the join table
+    public void setParticipantsAssigned(Set<User> participantsAssigned) {
+        Set<User> replacement = new LinkedHashSet<>(participantsAssigned);
+        this.participantsAssigned.clear();
+        this.participantsAssigned.addAll(replacement);
+        this.remainingWriters = this.participantsAssigned.size();
+        this.participantsVersion++;
+    }
+
     public void addParticipantThatEdited(User user) {
         participantsThatEdited.add(user);
     }
+
+    public boolean markAsEdited(User user) {
+        if (!participantsAssigned.remove(user)) {
+            return false;
+        }
+        remainingWriters--;
+        participantsVersion++;
+        participantsThatEdited.add(user);
+        return true;
+    }
+
+    public void startNextRound() {
+        if (participantsAssigned.addAll(participantsThatEdited)) {
+            participantsVersion++;
+        }
+        participantsThatEdited.clear();
+        remainingWriters = participantsAssigned.size();
+    }
+
+    //    A document without assigned participants has no turn to pass
+    public void passTurn() {
+        if (participantsAssigned.isEmpty()) {
+            turnPosition = 0;
+            return;
+        }
+
+        turnPosition = (turnPosition + 1) % participantsAssigned.size();
+        remainingWriters--;
+    }
+
+    public boolean isRoundFinished() {
+        return remainingWriters == 0;
+    }
+
+    public static long countByActivity(UUID activityUuid) {
+        return count("groupActivity.activityOwner.uuid", activityUuid);
+    }
+
+    public static long countUnfinishedByActivity(UUID activityUuid, int rounds) {
+        return count("groupActivity.activityOwner.uuid = ?1 and (remainingWriters > 0 or rounds < ?2)", activityUuid, rounds);
+    }
     public static List<Document> findAllByGroupActivity(UUID uuid) {
         return find("groupActivity_id", uuid).list();
     }
@@ -76,6 +157,10 @@ public class Document extends PanacheEntity {
         return find("externalId", externalId).firstResultOptional();
     }
 
+    public static List<Document> findAllByExternalIds(Collection<String> externalIds) {
+        return list("externalId in ?1", externalIds);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
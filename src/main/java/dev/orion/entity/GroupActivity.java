@@ -17,6 +17,7 @@ import java.util.*;
 @AllArgsConstructor
 @JsonIgnoreProperties(value = {"id"})
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(indexes = @Index(name = "IDX_GROUP_ACTIVITY_OWNER", columnList = "activityOwner_uuid"))
 public class GroupActivity extends PanacheEntityBase {
 
     @Id
@@ -27,7 +28,6 @@ public class GroupActivity extends PanacheEntityBase {
     private UUID uuid;
 
     @OneToMany(mappedBy = "groupActivity", cascade = CascadeType.ALL)
-    @OrderColumn
     @JsonManagedReference
     private Set<User> participants = new LinkedHashSet<>();
 
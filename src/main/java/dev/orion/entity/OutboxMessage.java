@@ -0,0 +1,71 @@
+package dev.orion.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(indexes = @Index(name = "IDX_OUTBOX_MESSAGE_RELAY_PARTITION", columnList = "relayPartition, id"))
+public class OutboxMessage extends PanacheEntity {
+    public static final int PARTITIONS = 1024;
+    private static final int SKIP_LOCKED = -2;
+
+    @Column(nullable = false)
+    private String queueName;
+
+    //    Messages with the same ordering key share a partition, so the relay publishes them in insertion order
+    @Column(nullable = false)
+    private Integer partitionKey;
+
+    //    Relay worker owning the message, stored so a worker reads its batch straight from the index
+    @Column(nullable = false)
+    private Integer relayPartition;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    private String contentEncoding;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    private LocalDateTime createdAt;
+
+    public OutboxMessage(String queueName, Object orderingKey, int relayPartitions, String contentType, String contentEncoding, byte[] payload) {
+        this.queueName = queueName;
+        this.partitionKey = Math.floorMod(Objects.hashCode(orderingKey), PARTITIONS);
+        this.relayPartition = Math.floorMod(partitionKey, relayPartitions);
+        this.contentType = contentType;
+        this.contentEncoding = contentEncoding;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    void createdAtUpdate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static List<OutboxMessage> findNextBatch(int relayPartition, int batchSize) {
+        return OutboxMessage
+                .<OutboxMessage>find("relayPartition = ?1 order by id", relayPartition)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint("javax.persistence.lock.timeout", SKIP_LOCKED)
+                .page(0, batchSize)
+                .list();
+    }
+
+    //    Messages left by a relay running with another parallelism are moved to the worker that now owns them
+    public static int reassignRelayPartitions(int relayPartitions) {
+        return OutboxMessage.update("relayPartition = mod(partitionKey, ?1) where relayPartition <> mod(partitionKey, ?1)", relayPartitions);
+    }
+}
@@ -0,0 +1,50 @@
+package dev.orion.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class PooledDocument extends PanacheEntity {
+    private static final int SKIP_LOCKED = -2;
+
+    @Column(nullable = false, unique = true)
+    private String externalId;
+
+    private LocalDateTime createdAt;
+
+    public PooledDocument(String externalId) {
+        this.externalId = externalId;
+    }
+
+    @PrePersist
+    void createdAtUpdate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    //    Rows locked by another claiming transaction are skipped instead of waited on, and come back to the pool
+    //    if that transaction rolls back
+    public static List<String> claim(int count) {
+        List<PooledDocument> pooledDocuments = PooledDocument
+                .<PooledDocument>find("order by id")
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .withHint("javax.persistence.lock.timeout", SKIP_LOCKED)
+                .page(0, count)
+                .list();
+        if (pooledDocuments.isEmpty()) {
+            return List.of();
+        }
+
+        delete("id in ?1", pooledDocuments.stream().map(pooledDocument -> pooledDocument.id).collect(Collectors.toList()));
+        return pooledDocuments.stream().map(PooledDocument::getExternalId).collect(Collectors.toList());
+    }
+}
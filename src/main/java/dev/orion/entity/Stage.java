@@ -3,6 +3,8 @@ package dev.orion.entity;
 import dev.orion.commom.constant.ActivityStage;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -14,6 +16,8 @@ import java.util.Objects;
 @Setter
 @RequiredArgsConstructor
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Stage extends PanacheEntity {
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -22,6 +26,7 @@ public class Stage extends PanacheEntity {
 
     @ManyToMany(cascade = CascadeType.ALL)
     @OrderColumn
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private List<Step> steps = new ArrayList<>();
 
     public void addStep(Step step) {
@@ -5,6 +5,8 @@ import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.HashSet;
@@ -15,7 +17,10 @@ import java.util.Set;
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
-@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+//    Every step type lives in the same table, columns of a single type are nullable
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(discriminatorType = DiscriminatorType.STRING, name = "STEP_TYPE")
 public abstract class Step extends PanacheEntity {
     @Column(nullable = false, updatable = false)
@@ -26,8 +31,14 @@ public abstract class Step extends PanacheEntity {
     @ElementCollection(targetClass = ActivityStage.class)
     @CollectionTable(name = "ALLOWED_STAGE_FOR_STEP")
     @Enumerated(EnumType.STRING)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     protected Set<ActivityStage> allowedStages = new HashSet<>(List.of(ActivityStage.values()));
 
+    protected Step(String type, String description) {
+        this.type = type;
+        this.description = description;
+    }
+
     public String getStepType() {
         return this.type;
     }
@@ -10,6 +10,8 @@ import lombok.Setter;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -18,6 +20,10 @@ import java.util.Optional;
 @Getter
 @NoArgsConstructor
 @JsonIgnoreProperties(value = {"id"})
+@Table(indexes = {
+        @Index(name = "IDX_USER_ACTIVITY", columnList = "activity_uuid"),
+        @Index(name = "IDX_USER_GROUP_ACTIVITY", columnList = "groupActivity_uuid")
+})
 public class User extends PanacheEntity {
     public User(String externalId) {
         this.externalId = externalId;
@@ -57,6 +63,10 @@ public class User extends PanacheEntity {
         return User.find("externalId", externalId).firstResultOptional();
     }
 
+    public static List<User> findAllByExternalIds(Collection<String> externalIds) {
+        return User.list("externalId in ?1", externalIds);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
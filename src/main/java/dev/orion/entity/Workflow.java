@@ -5,21 +5,33 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
+/**
+ * Workflows, with their stages and steps, are reference data read on every edit and changed only through
+ * createOrUpdateWorkflow, which evicts them from the second-level cache.
+ */
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(name = "IDX_WORKFLOW_NAME", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Workflow extends PanacheEntity {
     @Column(nullable = false)
     private String name;
@@ -28,6 +40,7 @@ public class Workflow extends PanacheEntity {
     private String description;
 
     @OneToMany(cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Set<Stage> stages = new HashSet<>();
 
     public void addStepStage(Stage stage) {
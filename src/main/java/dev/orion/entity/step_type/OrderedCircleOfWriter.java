@@ -1,26 +1,33 @@
 package dev.orion.entity.step_type;
 
+import dev.orion.commom.constant.ActivityStage;
 import dev.orion.commom.constant.CircularStepFlowDirectionTypes;
 import dev.orion.entity.Step;
 import lombok.*;
 
-import javax.persistence.Column;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import java.util.Set;
 
 @Entity
 @Getter
 @Setter
-@DiscriminatorValue("ORDERED_CIRCLE_OF_WRITERS")
-@NoArgsConstructor
-@RequiredArgsConstructor
+@DiscriminatorValue(OrderedCircleOfWriter.TYPE)
 public class OrderedCircleOfWriter extends Step {
-    final public String type = "ORDERED_CIRCLE_OF_WRITERS";
-    final public String description = "Following the Circle of Learners, this step ir circular and respect a sequence order from the flow direction";
+    static final String TYPE = "ORDERED_CIRCLE_OF_WRITERS";
 
     @NonNull
-    @Column(nullable = false)
-    private CircularStepFlowDirectionTypes flowDirection;
+    private CircularStepFlowDirectionTypes flowDirection = CircularStepFlowDirectionTypes.FROM_BEGIN_TO_END;
 
     private Integer rounds = 1;
+
+    public OrderedCircleOfWriter() {
+        super(TYPE, "Following the Circle of Learners, this step ir circular and respect a sequence order from the flow direction");
+        allowedStages = Set.of(ActivityStage.DURING);
+    }
+
+    public OrderedCircleOfWriter(@NonNull CircularStepFlowDirectionTypes flowDirection) {
+        this();
+        this.flowDirection = flowDirection;
+    }
 }
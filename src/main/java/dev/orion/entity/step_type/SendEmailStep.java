@@ -2,9 +2,10 @@ package dev.orion.entity.step_type;
 
 import dev.orion.commom.constant.ActivityStage;
 import dev.orion.entity.Step;
-import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.HashMap;
@@ -14,19 +15,19 @@ import java.util.Set;
 @Entity
 @Getter
 @Setter
-@DiscriminatorValue("SEND_EMAIL")
+@DiscriminatorValue(SendEmailStep.TYPE)
 public class SendEmailStep extends Step {
-    @Getter(AccessLevel.NONE)
-    final private String type = "SEND_EMAIL";
-    final private String description = "Send email to advice when activity start or ends";
-    @Column(nullable = false)
+    static final String TYPE = "SEND_EMAIL";
+
     private boolean onlyForCreator = false;
 
     @ElementCollection
     @CollectionTable(name = "ACTIVITY_STAGE_EMAIL_MESSAGE")
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     private Map<ActivityStage, String> activityStageMessageMap = new HashMap<>();
 
     public SendEmailStep() {
+        super(TYPE, "Send email to advice when activity start or ends");
         allowedStages = Set.of(ActivityStage.PRE, ActivityStage.POS);
     }
 
@@ -2,7 +2,6 @@ package dev.orion.entity.step_type;
 
 import dev.orion.commom.constant.ActivityStage;
 import dev.orion.entity.Step;
-import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,15 +12,14 @@ import java.util.Set;
 @Entity
 @Getter
 @Setter
-@DiscriminatorValue("UNORDERED_CIRCLE_OF_WRITES")
+@DiscriminatorValue(UnorderedCircleOfWriters.TYPE)
 public class UnorderedCircleOfWriters extends Step {
-    @Getter(AccessLevel.NONE)
-    final private String type = "UNORDERED_CIRCLE_OF_WRITES";
-    final private String description = "Following the Circle of Learners, this step ir circular but with flexible order";
+    static final String TYPE = "UNORDERED_CIRCLE_OF_WRITES";
 
     private Integer rounds = 1;
 
     public UnorderedCircleOfWriters() {
+        super(TYPE, "Following the Circle of Learners, this step ir circular but with flexible order");
         allowedStages = Set.of(ActivityStage.DURING);
     }
 }
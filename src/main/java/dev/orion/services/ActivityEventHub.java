@@ -0,0 +1,294 @@
+package dev.orion.services;
+
+import dev.orion.broker.dto.ActivityUpdateMessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fans activity updates out to in-process subscribers, such as the server-sent event stream of an activity. Every
+ * subscriber has its own bounded buffer drained on a dispatcher thread, so publishing never waits on a subscriber.
+ * When a subscriber falls behind and its buffer is full the oldest buffered update is dropped: updates carry the
+ * whole activity state, so a slow subscriber skips intermediate states but always ends with the latest one.
+ * Deliveries may complete later, a subscriber has a single one in flight at a time and is closed when one fails.
+ * Subscribers with a heartbeat get it periodically while idle, so dead connections are found and closed.
+ */
+@ApplicationScoped
+public class ActivityEventHub {
+    static final Integer BUFFER_SIZE = ConfigProvider.getConfig().getOptionalValue("activity.events.buffer-size", Integer.class).orElse(16);
+    static final Integer DISPATCH_THREADS = ConfigProvider.getConfig().getOptionalValue("activity.events.dispatch-threads", Integer.class).orElse(2);
+    static final Long HEARTBEAT_SECONDS = ConfigProvider.getConfig().getOptionalValue("activity.events.heartbeat-seconds", Long.class).orElse(15L);
+    private static final CompletableFuture<Void> DELIVERED = CompletableFuture.completedFuture(null);
+    private static final Logger logger = Logger.getLogger(ActivityEventHub.class);
+
+    private final Map<UUID, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter deliveredCounter;
+    private final Counter droppedCounter;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    private ExecutorService dispatcher;
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @Inject
+    public ActivityEventHub(MeterRegistry meterRegistry) {
+        this.deliveredCounter = Counter.builder("orion.activities.events.delivered")
+                .description("Activity updates handed to stream subscribers")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("orion.activities.events.dropped")
+                .description("Activity updates dropped because the subscriber buffer was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("orion.activities.events.subscribers", subscriberCount);
+    }
+
+    @PostConstruct
+    void startDispatcher() {
+        val threadCount = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(DISPATCH_THREADS, runnable -> {
+            val thread = new Thread(runnable, "activity-event-dispatcher-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            val thread = new Thread(runnable, "activity-event-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stopDispatcher() {
+        heartbeatScheduler.shutdownNow();
+        subscriptions.values().forEach(activitySubscriptions -> activitySubscriptions.forEach(Subscription::close));
+        dispatcher.shutdownNow();
+    }
+
+    public Subscription subscribe(UUID activityUuid, Consumer<ActivityUpdateMessageDto> listener) {
+        return subscribe(activityUuid, BUFFER_SIZE, listener);
+    }
+
+    /**
+     * Subscribes a listener whose deliveries complete later, such as writes to a remote client. The next update is
+     * only handed over once the previous delivery completes, and the heartbeat is sent while no delivery is in flight.
+     */
+    public Subscription subscribe(UUID activityUuid, Function<ActivityUpdateMessageDto, CompletionStage<?>> listener, Supplier<CompletionStage<?>> heartbeat) {
+        return subscribe(activityUuid, BUFFER_SIZE, listener, heartbeat);
+    }
+
+    Subscription subscribe(UUID activityUuid, int bufferSize, Consumer<ActivityUpdateMessageDto> listener) {
+        return subscribe(activityUuid, bufferSize, activityUpdate -> {
+            listener.accept(activityUpdate);
+            return DELIVERED;
+        }, null);
+    }
+
+    Subscription subscribe(UUID activityUuid, int bufferSize, Function<ActivityUpdateMessageDto, CompletionStage<?>> listener, Supplier<CompletionStage<?>> heartbeat) {
+        val subscription = new Subscription(activityUuid, bufferSize, listener, heartbeat);
+        subscriptions.computeIfAbsent(activityUuid, ignored -> ConcurrentHashMap.newKeySet()).add(subscription);
+        subscriberCount.incrementAndGet();
+        logger.debugv("New subscriber on updates of activity {0}", activityUuid);
+
+        return subscription;
+    }
+
+    //    Inside a transaction the update is only fanned out once it commits, subscribers never see rolled back states.
+    //    Errors are addressed to single users, so they are left out of what every subscriber receives
+    public void publish(ActivityUpdateMessageDto update) {
+        if (!subscriptions.containsKey(update.uuid)) {
+            return;
+        }
+
+        val activityUpdate = update.withoutErrors();
+
+        if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            fanOut(activityUpdate);
+            return;
+        }
+
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    fanOut(activityUpdate);
+                }
+            }
+        });
+    }
+
+    public int getSubscriberCount(UUID activityUuid) {
+        return subscriptions.getOrDefault(activityUuid, Collections.emptySet()).size();
+    }
+
+    void sendHeartbeats() {
+        try {
+            subscriptions.values().forEach(activitySubscriptions -> activitySubscriptions.forEach(Subscription::sendHeartbeat));
+        } catch (RuntimeException e) {
+            logger.warnv("Could not send heartbeats to activity subscribers: {0}", e.getMessage());
+        }
+    }
+
+    private void fanOut(ActivityUpdateMessageDto activityUpdate) {
+        subscriptions
+                .getOrDefault(activityUpdate.uuid, Collections.emptySet())
+                .forEach(subscription -> subscription.offer(activityUpdate));
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.activityUuid, (ignored, activitySubscriptions) -> {
+            if (activitySubscriptions.remove(subscription)) {
+                subscriberCount.decrementAndGet();
+            }
+            return activitySubscriptions.isEmpty() ? null : activitySubscriptions;
+        });
+    }
+
+    public final class Subscription implements AutoCloseable {
+        private final UUID activityUuid;
+        private final int bufferSize;
+        private final Function<ActivityUpdateMessageDto, CompletionStage<?>> listener;
+        private final Supplier<CompletionStage<?>> heartbeat;
+        private final ArrayDeque<ActivityUpdateMessageDto> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed = false;
+
+        private Subscription(UUID activityUuid, int bufferSize, Function<ActivityUpdateMessageDto, CompletionStage<?>> listener, Supplier<CompletionStage<?>> heartbeat) {
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("Subscriber buffer size must be greater than zero");
+            }
+            this.activityUuid = activityUuid;
+            this.bufferSize = bufferSize;
+            this.listener = listener;
+            this.heartbeat = heartbeat;
+            this.buffer = new ArrayDeque<>(bufferSize);
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            remove(this);
+        }
+
+        public void offer(ActivityUpdateMessageDto activityUpdate) {
+            if (closed) {
+                return;
+            }
+
+            synchronized (buffer) {
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    droppedCounter.increment();
+                }
+                buffer.addLast(activityUpdate);
+            }
+
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        //    Skipped while a delivery is in flight, the connection is being written to anyway
+        private void sendHeartbeat() {
+            if (closed || Objects.isNull(heartbeat) || !draining.compareAndSet(false, true)) {
+                return;
+            }
+
+            dispatcher.execute(() -> deliver(heartbeat, false));
+        }
+
+        //    Only one drain per subscriber runs at a time and it waits for each delivery, keeping updates in publish order
+        private void drain() {
+            val activityUpdate = closed ? null : next();
+            if (Objects.isNull(activityUpdate)) {
+                finishDrain();
+                return;
+            }
+
+            deliver(() -> listener.apply(activityUpdate), true);
+        }
+
+        private void deliver(Supplier<CompletionStage<?>> delivery, boolean isUpdate) {
+            CompletionStage<?> pendingDelivery;
+            try {
+                pendingDelivery = delivery.get();
+            } catch (RuntimeException e) {
+                pendingDelivery = CompletableFuture.failedFuture(e);
+            }
+
+            pendingDelivery.whenComplete((ignored, error) -> {
+                if (Objects.nonNull(error)) {
+                    logger.debugv("Closing subscriber on updates of activity {0}: {1}", activityUuid, error.getMessage());
+                    close();
+                    draining.set(false);
+                    return;
+                }
+
+                if (isUpdate) {
+                    deliveredCounter.increment();
+                }
+                dispatcher.execute(this::drain);
+            });
+        }
+
+        private void finishDrain() {
+            draining.set(false);
+            if (!closed && hasBufferedUpdates()) {
+                scheduleDrain();
+            }
+        }
+
+        private ActivityUpdateMessageDto next() {
+            synchronized (buffer) {
+                return buffer.pollFirst();
+            }
+        }
+
+        private boolean hasBufferedUpdates() {
+            synchronized (buffer) {
+                return !buffer.isEmpty();
+            }
+        }
+    }
+}
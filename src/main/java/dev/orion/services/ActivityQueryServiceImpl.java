@@ -0,0 +1,87 @@
+package dev.orion.services;
+
+import dev.orion.entity.Activity;
+import dev.orion.services.dto.ActivitySummary;
+import dev.orion.services.dto.DocumentSummary;
+import dev.orion.services.dto.GroupSummary;
+import dev.orion.services.interfaces.ActivityQueryService;
+import lombok.val;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.Tuple;
+import javax.transaction.Transactional;
+import javax.ws.rs.NotFoundException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Answers activity reads with projection queries, one per requested part, so the number of statements does not
+ * depend on how many groups, participants or documents the activity has.
+ */
+@ApplicationScoped
+@Transactional
+public class ActivityQueryServiceImpl implements ActivityQueryService {
+
+    @Override
+    public ActivitySummary getActivitySummary(UUID activityUuid, Set<String> expand) {
+        val activitySummary = Activity.getEntityManager()
+                .createQuery("select new dev.orion.services.dto.ActivitySummary(" +
+                        "a.uuid, a.actualStage, a.isActive, a.createdAt, a.updatedAt, c.externalId, w.name, count(p), a.version) " +
+                        "from Activity a " +
+                        "join a.creator c " +
+                        "join a.workflow w " +
+                        "left join a.participants p " +
+                        "where a.uuid = :uuid " +
+                        "group by a.uuid, a.actualStage, a.isActive, a.createdAt, a.updatedAt, c.externalId, w.name, a.version", ActivitySummary.class)
+                .setParameter("uuid", activityUuid)
+                .getResultStream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(MessageFormat.format("Activity {0} not found", activityUuid)));
+
+        if (expand.contains(EXPAND_GROUPS)) {
+            activitySummary.setGroups(findGroups(activityUuid));
+        }
+        if (expand.contains(EXPAND_DOCUMENTS)) {
+            activitySummary.setDocuments(findDocuments(activityUuid));
+        }
+
+        return activitySummary;
+    }
+
+    private List<GroupSummary> findGroups(UUID activityUuid) {
+        val rows = Activity.getEntityManager()
+                .createQuery("select g.uuid as uuid, g.capacity as capacity, u.externalId as participant " +
+                        "from GroupActivity g " +
+                        "left join g.participants u " +
+                        "where g.activityOwner.uuid = :uuid", Tuple.class)
+                .setParameter("uuid", activityUuid)
+                .getResultList();
+
+        val groups = new LinkedHashMap<UUID, GroupSummary>();
+        rows.forEach(row -> {
+            val group = groups.computeIfAbsent(row.get("uuid", UUID.class),
+                    uuid -> new GroupSummary(uuid, row.get("capacity", Integer.class), new ArrayList<>()));
+            val participant = row.get("participant", String.class);
+            if (Objects.nonNull(participant)) {
+                group.getParticipants().add(participant);
+            }
+        });
+
+        return new ArrayList<>(groups.values());
+    }
+
+    private List<DocumentSummary> findDocuments(UUID activityUuid) {
+        return Activity.getEntityManager()
+                .createQuery("select new dev.orion.services.dto.DocumentSummary(g.uuid, d.externalId, d.rounds, d.remainingWriters) " +
+                        "from Document d " +
+                        "join d.groupActivity g " +
+                        "where g.activityOwner.uuid = :uuid", DocumentSummary.class)
+                .setParameter("uuid", activityUuid)
+                .getResultList();
+    }
+}
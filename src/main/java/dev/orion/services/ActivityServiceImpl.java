@@ -15,6 +15,7 @@ import dev.orion.entity.User;
 import dev.orion.entity.Workflow;
 import dev.orion.services.dto.ActivityExecutionDto;
 import dev.orion.services.dto.UserEnhancedWithExternalData;
+import dev.orion.services.dto.UserEnrollmentResult;
 import dev.orion.services.interfaces.ActivityService;
 import dev.orion.services.interfaces.GroupService;
 import dev.orion.services.interfaces.UserService;
@@ -23,6 +24,7 @@ import dev.orion.util.AggregateException;
 import io.quarkus.arc.log.LoggerName;
 import lombok.AllArgsConstructor;
 import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.logging.Logger;
 import org.jboss.resteasy.spi.NotImplementedYetException;
 
@@ -40,6 +42,8 @@ import static java.lang.Boolean.FALSE;
 @ApplicationScoped
 @Transactional
 public class ActivityServiceImpl implements ActivityService {
+    static final Integer GROUP_SIZE = ConfigProvider.getConfig().getOptionalValue("activity.group.size", Integer.class).orElse(0);
+
     @Inject
     UserService userService;
 
@@ -49,6 +53,9 @@ public class ActivityServiceImpl implements ActivityService {
     @Inject
     DocumentUpdateProducer documentUpdateProducer;
 
+    @Inject
+    ActivityEventHub activityEventHub;
+
     @Inject
     GroupService groupService;
 
@@ -111,6 +118,7 @@ public class ActivityServiceImpl implements ActivityService {
 
         val activity = optionalActivity.get();
         activity.addParticipant(user.userEntity);
+        activity.touch();
 
         logger.info(MessageFormat.format("User ({0}) added to activity: ({1})", user.uuid, activity.uuid));
         activity.persist();
@@ -118,6 +126,53 @@ public class ActivityServiceImpl implements ActivityService {
         return activity;
     }
 
+    @Override
+    public List<UserEnrollmentResult> addUsersInActivity(UUID activityUuid, List<String> userExternalIds) {
+        val activity = (Activity) Activity.findByIdOptional(activityUuid)
+                .orElseThrow(() -> new UserInvalidOperationException(MessageFormat.format("Activity with UUID {0} not found", activityUuid)));
+        if (activity.actualStage != ActivityStage.PRE) {
+            throw new UserInvalidOperationException(MessageFormat.format("Cannot add users to Activity {0} because it has already start", activityUuid));
+        }
+        if (FALSE == activity.isActive) {
+            throw new UserInvalidOperationException(MessageFormat.format("Activity {0} must be active to add users", activityUuid));
+        }
+
+        val users = userService.getCompleteUsersData(userExternalIds);
+        val results = new ArrayList<UserEnrollmentResult>();
+        new LinkedHashSet<>(userExternalIds).forEach(userExternalId -> {
+            if (users.isUnavailable(userExternalId)) {
+                results.add(UserEnrollmentResult.unavailable(userExternalId, MessageFormat.format("User {0} could not be looked up on user service, try again", userExternalId)));
+                return;
+            }
+
+            val user = users.getUsers().get(userExternalId);
+            if (Objects.isNull(user)) {
+                results.add(UserEnrollmentResult.rejected(userExternalId, MessageFormat.format("User {0} not found in user service", userExternalId)));
+                return;
+            }
+
+            setUserToAvailableIfDroppedFromActivity(user.userEntity);
+            try {
+                validateUserToJoinInNewActivity(user);
+            } catch (UserInvalidOperationException e) {
+                results.add(UserEnrollmentResult.rejected(userExternalId, e.getMessage()));
+                return;
+            }
+
+            activity.addParticipant(user.userEntity);
+            results.add(UserEnrollmentResult.enrolled(userExternalId));
+        });
+
+        val enrolledCount = results.stream().filter(UserEnrollmentResult::isEnrolled).count();
+        logger.infov("{0} of {1} users added to activity: ({2})", enrolledCount, results.size(), activityUuid);
+        if (enrolledCount > 0) {
+            activity.touch();
+        }
+        activity.persist();
+
+        return results;
+    }
+
     private void validateUserInsertion(Optional<Activity> optionalActivity, UserEnhancedWithExternalData user, UUID activityUuid) {
         validateActivityToAddUser(optionalActivity, user, activityUuid);
         validateUserToJoinInNewActivity(user);
@@ -125,7 +180,9 @@ public class ActivityServiceImpl implements ActivityService {
 
     private void setUserToAvailableIfDroppedFromActivity(User user) {
         if (user.activity != null && !user.activity.isActive) {
-            user.activity.remove(user);
+            val droppedActivity = user.activity;
+            droppedActivity.remove(user);
+            droppedActivity.touch();
         }
     }
 
@@ -195,6 +252,7 @@ public class ActivityServiceImpl implements ActivityService {
         createGroupIfNotExists(activityUUID);
 
         activity.setActualStage(ActivityStage.DURING);
+        activity.touch();
         activity.persist();
         return activity;
     }
@@ -206,29 +264,69 @@ public class ActivityServiceImpl implements ActivityService {
         val userExternalId = activityExecutionDto.getUserExternalId();
         logger.infov("Start activity execution with user {0}, document {1} and activity: {2} to new content", userExternalId, documentExternalId, activityUUID);
 
-        Activity activity = null;
-        Document document = null;
-        User participant = null;
-
         try {
             val entities = getEntitiesToExecute(activityUUID, documentExternalId, userExternalId);
-            activity = entities.activity;
-            document = entities.document;
-            participant = entities.participant;
-
-            validateExecution(activity, participant);
+            return execute(activityExecutionDto, entities);
         } catch (NotFoundException e) {
             logger.error(e.getMessage());
             return null;
+        }
+    }
+
+    @Override
+    public List<Activity> executeBatch(List<ActivityExecutionDto> activityExecutionDtos) {
+        if (activityExecutionDtos.isEmpty()) {
+            return List.of();
+        }
+        logger.infov("Start batch execution of {0} edits", activityExecutionDtos.size());
+
+        val activities = Activity
+                .findAllByIds(activityExecutionDtos.stream().map(ActivityExecutionDto::getActivityUUID).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Activity::getUuid, activity -> activity));
+        val documents = Document
+                .findAllByExternalIds(activityExecutionDtos.stream().map(ActivityExecutionDto::getDocumentExternalId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Document::getExternalId, document -> document));
+        val participants = User
+                .findAllByExternalIds(activityExecutionDtos.stream().map(ActivityExecutionDto::getUserExternalId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getExternalId, user -> user));
+
+        val executedActivities = new ArrayList<Activity>();
+        activityExecutionDtos.forEach(activityExecutionDto -> {
+            try {
+                val entities = getEntitiesToExecute(activityExecutionDto, activities, documents, participants);
+                val activity = execute(activityExecutionDto, entities);
+                if (Objects.nonNull(activity)) {
+                    executedActivities.add(activity);
+                }
+            } catch (NotFoundException e) {
+                logger.error(e.getMessage());
+            }
+        });
+
+        logger.infov("Batch execution finished with {0} of {1} edits applied", executedActivities.size(), activityExecutionDtos.size());
+        return executedActivities;
+    }
+
+    private Activity execute(ActivityExecutionDto activityExecutionDto, ExecutionDto entities) {
+        val activityUUID = activityExecutionDto.getActivityUUID();
+        val documentExternalId = activityExecutionDto.getDocumentExternalId();
+        val userExternalId = activityExecutionDto.getUserExternalId();
+        val activity = entities.activity;
+        val document = entities.document;
+        val participant = entities.participant;
+
+        try {
+            validateExecution(activity, participant, entities.participantInActivity);
         } catch (InvalidActivityActionException e) {
             val errorBuilder = ActivityUpdateMessageDto.getErrorBuilder();
             val userError = errorBuilder
                     .externalUserId(userExternalId)
                     .code(3) // Code number is set just for example, there's no importance now. Must change
                     .message(e.getMessage()).build();
-            if (Objects.nonNull(activity)) {
-                sendActivityToProducer(activity, List.of(userError), UUID.randomUUID());
-            }
+            sendActivityToProducer(activity, List.of(userError), UUID.randomUUID());
 
             return null;
         }
@@ -236,10 +334,11 @@ public class ActivityServiceImpl implements ActivityService {
         if (FALSE == executeWorkflow(activity, participant, document)) {
             return null;
         }
+        activity.touch();
 
 
         try {
-            val messageKey = UUID.randomUUID();
+            val messageKey = Optional.ofNullable(activityExecutionDto.getMessageKey()).orElseGet(UUID::randomUUID);
             sendDocumentToProducer(activityExecutionDto, messageKey);
             sendActivityToProducer(activity, List.of(), messageKey);
         } catch (RuntimeException exception) {
@@ -278,6 +377,7 @@ public class ActivityServiceImpl implements ActivityService {
         val activityUUID = activity.getUuid();
 
         activity.setIsActive(false);
+        activity.touch();
         activity.persist();
 
         val exceptionMessage = MessageFormat.format("Document queue is out, setting activity {0} to inactivate until it comeback.", activityUUID);
@@ -316,6 +416,7 @@ public class ActivityServiceImpl implements ActivityService {
             val activityUpdateMessageDto = new ActivityUpdateMessageDto(activity, messageKey);
             userErrors.forEach(activityUpdateMessageDto::addError);
             activityUpdateProducer.sendMessage(activityUpdateMessageDto);
+            activityEventHub.publish(activityUpdateMessageDto);
         } catch (IOException e) {
             logger.errorv("Error when trying to send update of activity {0} to queue. Exception: {1}",activityUUID, e);
             throw new RuntimeException("Error when trying to send update of activity to Activity queue");
@@ -324,14 +425,21 @@ public class ActivityServiceImpl implements ActivityService {
 
 
 
-    private void validateExecution(Activity activity, User participant) throws InvalidActivityActionException {
+    private void validateExecution(Activity activity, User participant, boolean participantInActivity) throws InvalidActivityActionException {
         validateActivityIsActive(activity);
-        if (FALSE == activity.getParticipants().contains(participant)) {
+        if (FALSE == participantInActivity) {
             throw new InvalidActivityActionException(MessageFormat.format("User {0} is not in activity {1} ", participant.getExternalId(), activity.getUuid()));
         }
     }
 
     private ExecutionDto getEntitiesToExecute(UUID activityUUID, String documentExternalId, String userExternalId) throws NotFoundException {
+        val executionContext = Activity.fetchExecutionContext(activityUUID, documentExternalId, userExternalId);
+        if (executionContext.isPresent()) {
+            val context = executionContext.get();
+            return new ExecutionDto(context.getActivity(), context.getDocument(), context.getParticipant(), context.isParticipantInActivity());
+        }
+
+        //        Something is missing, the individual lookups tell which one
         val activity = Activity.findByIdOptional(activityUUID).orElseThrow(() -> {
             throw new NotFoundException(MessageFormat.format("Activity {0} not found", activityUUID));
         });
@@ -344,7 +452,33 @@ public class ActivityServiceImpl implements ActivityService {
             throw new NotFoundException(MessageFormat.format("User {0} not found", userExternalId));
         });
 
-        return new ExecutionDto(activity, document, participant);
+        return new ExecutionDto(activity, document, participant, isParticipantInActivity(activity, participant));
+    }
+
+    private ExecutionDto getEntitiesToExecute(ActivityExecutionDto activityExecutionDto, Map<UUID, Activity> activities, Map<String, Document> documents, Map<String, User> participants) throws NotFoundException {
+        val activityUUID = activityExecutionDto.getActivityUUID();
+        val documentExternalId = activityExecutionDto.getDocumentExternalId();
+        val userExternalId = activityExecutionDto.getUserExternalId();
+
+        val activity = Optional.ofNullable(activities.get(activityUUID)).orElseThrow(() -> {
+            throw new NotFoundException(MessageFormat.format("Activity {0} not found", activityUUID));
+        });
+
+        val document = Optional.ofNullable(documents.get(documentExternalId)).orElseThrow(() -> {
+            throw new NotFoundException(MessageFormat.format("Document {0} not found", documentExternalId));
+        });
+
+        val participant = Optional.ofNullable(participants.get(userExternalId)).orElseThrow(() -> {
+            throw new NotFoundException(MessageFormat.format("User {0} not found", userExternalId));
+        });
+
+        return new ExecutionDto(activity, document, participant, isParticipantInActivity(activity, participant));
+    }
+
+    //    Membership is read from the user's activity column, the same one fetchExecutionContext compares, so the
+    //    participant set of the activity is never loaded just to answer it
+    private boolean isParticipantInActivity(Activity activity, User participant) {
+        return Objects.nonNull(participant.activity) && activity.getUuid().equals(participant.activity.getUuid());
     }
 
     private Set<User> getNotConnectedUsers(Activity activity) {
@@ -384,7 +518,13 @@ public class ActivityServiceImpl implements ActivityService {
             return;
         }
 
-        groupService.createGroup(activity, activity.getParticipants());
+        val participants = activity.getParticipants();
+        if (GROUP_SIZE > 0 && participants.size() > GROUP_SIZE) {
+            groupService.createGroups(activity, participants, GROUP_SIZE);
+            return;
+        }
+
+        groupService.createGroup(activity, participants);
     }
 
     @AllArgsConstructor
@@ -392,5 +532,6 @@ public class ActivityServiceImpl implements ActivityService {
         Activity activity;
         Document document;
         User participant;
+        boolean participantInActivity;
     }
 }
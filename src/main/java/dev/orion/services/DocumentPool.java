@@ -0,0 +1,167 @@
+package dev.orion.services;
+
+import dev.orion.client.DocumentClient;
+import dev.orion.client.dto.CreateDocumentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.runtime.configuration.ProfileManager;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Boolean.FALSE;
+
+/**
+ * Warm pool of empty documents already created on the document service, kept in a table shared by every node.
+ * Claiming hands out documents without a remote call, in the transaction of the claiming caller. Once the pool drops
+ * below the low watermark a background refiller creates documents until it is back at the high watermark; the time
+ * spent below the low watermark is recorded as the refill lag.
+ */
+@ApplicationScoped
+public class DocumentPool {
+    static final Boolean ENABLED = ConfigProvider.getConfig().getOptionalValue("activity.document-pool.enabled", Boolean.class).orElse(false);
+    static final Integer LOW_WATERMARK = ConfigProvider.getConfig().getOptionalValue("activity.document-pool.low-watermark", Integer.class).orElse(20);
+    static final Integer HIGH_WATERMARK = ConfigProvider.getConfig().getOptionalValue("activity.document-pool.high-watermark", Integer.class).orElse(100);
+    static final Long REFILL_INTERVAL_MS = ConfigProvider.getConfig().getOptionalValue("activity.document-pool.refill-interval-ms", Long.class).orElse(1000L);
+    private static final Logger logger = Logger.getLogger(DocumentPool.class);
+
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicLong belowLowWatermarkSince = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Timer refillLagTimer;
+
+    @RestClient
+    DocumentClient documentClient;
+    @Inject
+    DocumentPoolStore documentPoolStore;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public DocumentPool(MeterRegistry meterRegistry) {
+        this.hitCounter = Counter.builder("orion.documents.pool.hits")
+                .description("Documents claimed from the pool")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("orion.documents.pool.misses")
+                .description("Document claims that found the pool empty and fell back to the document service")
+                .register(meterRegistry);
+        this.refillLagTimer = Timer.builder("orion.documents.pool.refill.lag")
+                .description("Time between the pool dropping below the low watermark and being refilled to the high watermark")
+                .register(meterRegistry);
+        meterRegistry.gauge("orion.documents.pool.size", this, DocumentPool::size);
+        meterRegistry.gauge("orion.documents.pool.hit-ratio", this, DocumentPool::getHitRatio);
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (FALSE == ENABLED || "test".equalsIgnoreCase(ProfileManager.getActiveProfile())) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            val thread = new Thread(runnable, "document-pool-refiller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refill, 0, REFILL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        logger.infov("Document pool started with watermarks {0} and {1}", LOW_WATERMARK, HIGH_WATERMARK);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (Objects.nonNull(scheduler)) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public Optional<String> claim() {
+        return claim(1).stream().findFirst();
+    }
+
+    //    Claimed documents are handed back by a rollback of the calling transaction, nothing has to return them
+    public List<String> claim(int count) {
+        if (FALSE == ENABLED || count <= 0) {
+            return List.of();
+        }
+
+        val externalIds = documentPoolStore.claim(count);
+        hitCounter.increment(externalIds.size());
+        missCounter.increment(count - externalIds.size());
+
+        if (size() < LOW_WATERMARK) {
+            belowLowWatermarkSince.compareAndSet(0, System.nanoTime());
+            if (Objects.nonNull(scheduler)) {
+                scheduler.execute(this::refill);
+            }
+        }
+
+        return externalIds;
+    }
+
+    //    Puts back documents created for a transaction that rolled back, in a transaction of its own. False when the
+    //    pool is disabled and could never hand them out again
+    public boolean release(Collection<String> externalIds) {
+        if (FALSE == ENABLED) {
+            return false;
+        }
+
+        documentPoolStore.add(externalIds);
+        return true;
+    }
+
+    public long size() {
+        if (FALSE == ENABLED) {
+            return 0;
+        }
+
+        return documentPoolStore.count();
+    }
+
+    public double getHitRatio() {
+        val claims = hitCounter.count() + missCounter.count();
+        return claims == 0 ? 0 : hitCounter.count() / claims;
+    }
+
+    //    Every created document is stored right away, so a failing remote call does not lose the ones created before
+    void refill() {
+        if (size() >= LOW_WATERMARK || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        belowLowWatermarkSince.compareAndSet(0, System.nanoTime());
+        try {
+            var pooledCount = size();
+            while (pooledCount < HIGH_WATERMARK) {
+                val documentResponse = documentClient.createDocument(new CreateDocumentRequest(UUID.randomUUID(), ""));
+                documentPoolStore.add(List.of(documentResponse.getId()));
+                pooledCount++;
+            }
+
+            val lagStart = belowLowWatermarkSince.getAndSet(0);
+            refillLagTimer.record(System.nanoTime() - lagStart, TimeUnit.NANOSECONDS);
+            logger.debugv("Document pool refilled to {0} documents", pooledCount);
+        } catch (RuntimeException e) {
+            logger.warnv("Could not refill the document pool, retrying on next run: {0}", e.getMessage());
+        } finally {
+            refilling.set(false);
+        }
+    }
+}
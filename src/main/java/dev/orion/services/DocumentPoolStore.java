@@ -0,0 +1,31 @@
+package dev.orion.services;
+
+import dev.orion.entity.PooledDocument;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Table of the pooled documents. Claims join the transaction of the caller, so the documents taken for a group are
+ * only gone from the pool once the group is committed; documents are added in transactions of their own.
+ */
+@ApplicationScoped
+public class DocumentPoolStore {
+
+    @Transactional
+    public List<String> claim(int count) {
+        return PooledDocument.claim(count);
+    }
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void add(Collection<String> externalIds) {
+        externalIds.forEach(externalId -> new PooledDocument(externalId).persist());
+    }
+
+    @Transactional
+    public long count() {
+        return PooledDocument.count();
+    }
+}
@@ -0,0 +1,114 @@
+package dev.orion.services;
+
+import dev.orion.client.DocumentClient;
+import dev.orion.client.dto.CreateDocumentRequest;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Creates documents on the document service outside of any transaction. A caller inside a transaction has it
+ * suspended for the remote calls, so the calls never run in it. The document service cannot delete documents, so
+ * documents that end up unused are given back: empty ones go to the document pool, the others are only logged.
+ */
+@ApplicationScoped
+public class DocumentProvisioner {
+    static final Integer PROVISIONING_PARALLELISM = ConfigProvider.getConfig().getOptionalValue("activity.group.provisioning-parallelism", Integer.class).orElse(16);
+
+    private static final Logger logger = Logger.getLogger(DocumentProvisioner.class);
+
+    @RestClient
+    DocumentClient documentClient;
+    @Inject
+    DocumentPool documentPool;
+
+    private ExecutorService provisioningExecutor;
+
+    @PostConstruct
+    void setupProvisioning() {
+        val threadCount = new AtomicInteger();
+        provisioningExecutor = Executors.newFixedThreadPool(PROVISIONING_PARALLELISM, runnable -> {
+            val thread = new Thread(runnable, "document-provisioning-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopProvisioning() {
+        provisioningExecutor.shutdownNow();
+    }
+
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public String createDocument(UUID uuid, String initialContent) {
+        return documentClient.createDocument(new CreateDocumentRequest(uuid, initialContent)).getId();
+    }
+
+    //    Every remote document is requested before waiting on any, so provisioning costs one round trip per wave of
+    //    parallel requests. When one of them fails, the documents the others created are given back
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public List<String> createDocuments(String initialContent, int count) {
+        val pendingExternalIds = IntStream.range(0, count)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> documentClient.createDocument(new CreateDocumentRequest(UUID.randomUUID(), initialContent)).getId(),
+                        provisioningExecutor))
+                .collect(Collectors.toList());
+
+        try {
+            CompletableFuture.allOf(pendingExternalIds.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            giveBack(initialContent, pendingExternalIds.stream()
+                    .filter(pendingExternalId -> !pendingExternalId.isCompletedExceptionally())
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList()));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        return pendingExternalIds.stream().map(CompletableFuture::join).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    //    Pooled documents are created empty, so only empty documents can go back to the pool. The pool is written in a
+    //    transaction of its own on a provisioning thread, away from the completion of the transaction giving them back
+    public void giveBack(String initialContent, List<String> externalIds) {
+        if (externalIds.isEmpty()) {
+            return;
+        }
+
+        if (Objects.nonNull(initialContent) && !initialContent.isEmpty()) {
+            logger.warnv("Documents {0} were created on the document service but are not used by any group", externalIds);
+            return;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            if (documentPool.release(externalIds)) {
+                logger.infov("{0} unused documents have been returned to the document pool", externalIds.size());
+            } else {
+                logger.warnv("Documents {0} were created on the document service but are not used by any group", externalIds);
+            }
+        }, provisioningExecutor).exceptionally(e -> {
+            logger.errorv("Could not return documents {0} to the document pool: {1}", externalIds, e.getMessage());
+            return null;
+        });
+    }
+}
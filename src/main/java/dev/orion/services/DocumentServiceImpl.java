@@ -1,32 +1,37 @@
 package dev.orion.services;
 
 import dev.orion.broker.producer.DocumentUpdateProducer;
-import dev.orion.client.DocumentClient;
-import dev.orion.client.dto.CreateDocumentRequest;
 import dev.orion.entity.Document;
 import dev.orion.entity.User;
 import dev.orion.services.interfaces.DocumentService;
 import io.quarkus.arc.log.LoggerName;
 import lombok.val;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
 import org.jboss.resteasy.spi.NotImplementedYetException;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.ws.rs.NotFoundException;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 @ApplicationScoped
 public class DocumentServiceImpl implements DocumentService {
-
     @LoggerName("DocumentServiceImpl")
     Logger logger;
-    @RestClient
-    DocumentClient documentClient;
-
+    @Inject
+    DocumentPool documentPool;
+    @Inject
+    DocumentProvisioner documentProvisioner;
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
 
     @Override
     public void editContent(Document document, String content, String externalUserId) {
@@ -36,20 +41,81 @@ public class DocumentServiceImpl implements DocumentService {
     @Override
     public Document createDocument(UUID uuid, String initialContent, Set<User> editors) {
         val document = new Document();
-        val documentResponse = documentClient.createDocument(new CreateDocumentRequest(uuid, initialContent));
+        val externalId = claimPooledDocument(initialContent).orElseGet(() -> {
+            val createdExternalId = documentProvisioner.createDocument(uuid, initialContent);
+            giveBackOnRollback(initialContent, List.of(createdExternalId));
+            return createdExternalId;
+        });
 
-        document.setExternalId(documentResponse.getId());
+        document.setExternalId(externalId);
         document.assignMultipleParticipants(editors);
         document.persist();
 
         return document;
     }
 
+    @Override
+    public List<Document> createDocuments(String initialContent, List<Set<User>> editorsPerDocument) {
+        val externalIds = new ArrayList<String>(claimPooledDocuments(initialContent, editorsPerDocument.size()));
+
+        val createdExternalIds = documentProvisioner.createDocuments(initialContent, editorsPerDocument.size() - externalIds.size());
+        giveBackOnRollback(initialContent, createdExternalIds);
+        externalIds.addAll(createdExternalIds);
+
+        val documents = new ArrayList<Document>(editorsPerDocument.size());
+        for (int i = 0; i < editorsPerDocument.size(); i++) {
+            val document = new Document();
+            document.setExternalId(externalIds.get(i));
+            document.assignMultipleParticipants(editorsPerDocument.get(i));
+            document.persist();
+            documents.add(document);
+        }
+        logger.infov("{0} documents have been provisioned", documents.size());
+
+        return documents;
+    }
+
+    //    Pooled documents are created empty, so only empty documents can be taken from the pool
+    private Optional<String> claimPooledDocument(String initialContent) {
+        if (Objects.nonNull(initialContent) && !initialContent.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return documentPool.claim();
+    }
+
+    private List<String> claimPooledDocuments(String initialContent, int count) {
+        if (Objects.nonNull(initialContent) && !initialContent.isEmpty()) {
+            return List.of();
+        }
+
+        return documentPool.claim(count);
+    }
+
+    //    Documents created on the document service are not undone by a rollback, so they are given back instead
+    private void giveBackOnRollback(String initialContent, List<String> createdExternalIds) {
+        if (createdExternalIds.isEmpty() || transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return;
+        }
+
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    documentProvisioner.giveBack(initialContent, createdExternalIds);
+                }
+            }
+        });
+    }
+
     @Override
     public void moveParticipantToEditedList(Document document, User user) {
-        val isRemoved = document.getParticipantsAssigned().remove(user);
-        if (isRemoved) {
-            document.addParticipantThatEdited(user);
+        val isMoved = document.markAsEdited(user);
+        if (isMoved) {
             logger.infov("User {0} has been moved from participants to edited list in document {1}", user.getExternalId(), document.getExternalId());
             return;
         }
@@ -65,11 +131,12 @@ public class DocumentServiceImpl implements DocumentService {
                     throw new NotFoundException("Document with ID "+ documentExternalId + " not found");
                 });
 
-        val participantsThatEdited = new HashSet<>(document.getParticipantsThatEdited());
+        moveAllUsersFromEditedToParticipantList(document);
+    }
 
-        document.setParticipantsAssigned(participantsThatEdited);
-        document.setParticipantsThatEdited(new HashSet<>());
+    @Override
+    public void moveAllUsersFromEditedToParticipantList(Document document) {
+        document.startNextRound();
         logger.infov("Users has been moved from edited list to participant list in document {0}", document.getExternalId());
-
     }
 }
@@ -17,6 +17,9 @@ import javax.inject.Inject;
 import javax.transaction.Transactional;
 import javax.ws.rs.NotFoundException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -38,14 +41,16 @@ public class GroupServiceImpl implements GroupService {
         group.setActivityOwner(activity);
         group.setCapacity(activity.participants.size());
         activity.groupActivities.add(group);
+        activity.touch();
 
         return group;
     }
 
     @Override
     public GroupActivity createGroup(Activity activity, Set<User> users) {
-        val group = createGroup(activity);
+//        The document is provisioned before the group touches the activity, so no row lock is held meanwhile
         val document = documentService.createDocument(UUID.randomUUID(), "", users);
+        val group = createGroup(activity);
 
         group.addDocument(document);
         group.setCapacity(users.size());
@@ -55,6 +60,45 @@ public class GroupServiceImpl implements GroupService {
         return group;
     }
 
+    @Override
+    public List<GroupActivity> createGroups(Activity activity, Set<User> users, int groupSize) {
+        val usersPerGroup = splitIntoGroups(users, groupSize);
+        val documents = documentService.createDocuments("", usersPerGroup);
+
+        val groups = new ArrayList<GroupActivity>(usersPerGroup.size());
+        for (int i = 0; i < usersPerGroup.size(); i++) {
+            val groupUsers = usersPerGroup.get(i);
+            val group = createGroup(activity);
+            group.setCapacity(groupUsers.size());
+
+            addUserListToGroup(group, groupUsers, documents.get(i));
+            groups.add(group);
+        }
+        logger.infov("{0} users of activity {1} have been split into {2} groups", users.size(), activity.uuid, groups.size());
+
+        return groups;
+    }
+
+    //    Balances the users over as few groups as the size allows, so no group is left with a single straggler
+    private List<Set<User>> splitIntoGroups(Set<User> users, int groupSize) {
+        val groupCount = groupSize > 0 ? Math.max(1, (users.size() + groupSize - 1) / groupSize) : 1;
+        val minimumGroupSize = users.size() / groupCount;
+        val groupsWithOneMore = users.size() % groupCount;
+
+        val usersPerGroup = new ArrayList<Set<User>>(groupCount);
+        val userIterator = users.iterator();
+        for (int i = 0; i < groupCount; i++) {
+            val groupUsersSize = minimumGroupSize + (i < groupsWithOneMore ? 1 : 0);
+            val groupUsers = new LinkedHashSet<User>();
+            while (groupUsers.size() < groupUsersSize) {
+                groupUsers.add(userIterator.next());
+            }
+            usersPerGroup.add(groupUsers);
+        }
+
+        return usersPerGroup;
+    }
+
     @Override
     public void addUserToGroup(UUID groupUUID, User user, Document document) {
         val group = (GroupActivity) GroupActivity.findByIdOptional(groupUUID).orElseThrow(() -> new NotFoundException(MessageFormat.format("Group {0} not found", groupUUID)));
@@ -66,6 +110,7 @@ public class GroupServiceImpl implements GroupService {
         validateUserInsertionOnGroup(group, Set.of(user));
 
         addUserListToGroup(group, Set.of(user), document);
+        group.getActivityOwner().touch();
         group.persist();
     }
 
@@ -140,6 +185,7 @@ public class GroupServiceImpl implements GroupService {
         val documents = groupActivity.getDocuments();
         val documentsWIthUser = documents.stream().filter(document -> document.getParticipantsAssigned().contains(user));
         documentsWIthUser.forEach(document -> {document.removeParticipant(user);});
+        groupActivity.getActivityOwner().touch();
 
         emptyGroupCleaner(groupActivity);
 
@@ -180,6 +226,7 @@ public class GroupServiceImpl implements GroupService {
         }
 
         groupActivity.setCapacity(newCapacity);
+        activity.touch();
         groupActivity.persist();
     }
 }
@@ -0,0 +1,209 @@
+package dev.orion.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.orion.client.UserClient;
+import dev.orion.client.dto.UserClientResponse;
+import dev.orion.util.cache.LocalTtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.redis.client.RedisClient;
+import io.quarkus.runtime.StartupEvent;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.Boolean.FALSE;
+
+/**
+ * Two level cache in front of the user service. Users are kept in a local LRU cache with a time to live and, when
+ * enabled, in Redis to be shared between instances. Concurrent misses for the same user wait on a single remote
+ * lookup instead of each calling the user service.
+ */
+@ApplicationScoped
+public class UserClientCache {
+    static final Integer MAX_ENTRIES = ConfigProvider.getConfig().getOptionalValue("activity.user-cache.max-entries", Integer.class).orElse(10_000);
+    static final Long TTL_SECONDS = ConfigProvider.getConfig().getOptionalValue("activity.user-cache.ttl-seconds", Long.class).orElse(60L);
+    static final Boolean REDIS_ENABLED = ConfigProvider.getConfig().getOptionalValue("activity.user-cache.redis-enabled", Boolean.class).orElse(false);
+    static final Boolean PREFETCH_ON_START = ConfigProvider.getConfig().getOptionalValue("activity.user-cache.prefetch-on-start", Boolean.class).orElse(false);
+    static final String REDIS_KEY_PREFIX = "activity:user:";
+    private static final Logger logger = Logger.getLogger(UserClientCache.class);
+
+    private final LocalTtlCache<String, UserClientResponse> localUsers = new LocalTtlCache<>(MAX_ENTRIES, Duration.ofSeconds(TTL_SECONDS));
+    private final Map<String, CompletableFuture<UserClientResponse>> pendingLookups = new ConcurrentHashMap<>();
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+    private final Timer lookupTimer;
+
+    @Inject
+    @RestClient
+    UserClient userClient;
+
+    @Inject
+    Instance<RedisClient> redisClient;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    public UserClientCache(MeterRegistry meterRegistry) {
+        this.localHitCounter = Counter.builder("orion.users.cache.hits")
+                .tag("tier", "local")
+                .description("User lookups answered by the cache")
+                .register(meterRegistry);
+        this.redisHitCounter = Counter.builder("orion.users.cache.hits")
+                .tag("tier", "redis")
+                .description("User lookups answered by the cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("orion.users.cache.misses")
+                .description("User lookups that were not cached")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("orion.users.cache.coalesced")
+                .description("Missed user lookups that waited on a remote lookup already in flight")
+                .register(meterRegistry);
+        this.lookupTimer = Timer.builder("orion.users.lookup")
+                .description("Latency of user lookups on the user service")
+                .register(meterRegistry);
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        if (FALSE == PREFETCH_ON_START) {
+            return;
+        }
+
+        try {
+            prefetchAllUsers();
+        } catch (RuntimeException e) {
+            logger.warnv("Could not prefetch users, they will be loaded on demand: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the user from the user service, or null when the user service does not know it. Unknown users are
+     * not cached.
+     */
+    public UserClientResponse getUser(String externalId) {
+        val localUser = localUsers.get(externalId);
+        if (localUser.isPresent()) {
+            localHitCounter.increment();
+            return localUser.get();
+        }
+
+        val redisUser = readFromRedis(externalId);
+        if (redisUser.isPresent()) {
+            redisHitCounter.increment();
+            localUsers.put(externalId, redisUser.get());
+            return redisUser.get();
+        }
+
+        missCounter.increment();
+        val lookup = new CompletableFuture<UserClientResponse>();
+        val pendingLookup = pendingLookups.putIfAbsent(externalId, lookup);
+        if (Objects.nonNull(pendingLookup)) {
+            coalescedCounter.increment();
+            return awaitLookup(pendingLookup);
+        }
+
+        try {
+            val user = lookupTimer.record(() -> userClient.getUserByExternalId(externalId));
+            if (Objects.nonNull(user)) {
+                store(externalId, user);
+            }
+            lookup.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingLookups.remove(externalId, lookup);
+        }
+    }
+
+    /**
+     * Loads every user of the user service with a single call, warming the cache before a crowd joins at once.
+     */
+    public int prefetchAllUsers() {
+        val users = lookupTimer.record(() -> userClient.getAllUsers());
+        if (Objects.isNull(users)) {
+            return 0;
+        }
+
+        users.stream()
+                .filter(user -> Objects.nonNull(user.uuid))
+                .forEach(user -> store(user.uuid, user));
+        logger.infov("{0} users have been prefetched", users.size());
+
+        return users.size();
+    }
+
+    public void invalidate(String externalId) {
+        localUsers.invalidate(externalId);
+        if (FALSE == REDIS_ENABLED) {
+            return;
+        }
+
+        try {
+            redisClient.get().del(List.of(REDIS_KEY_PREFIX + externalId));
+        } catch (RuntimeException e) {
+            logger.warnv("Could not remove user {0} from Redis: {1}", externalId, e.getMessage());
+        }
+    }
+
+    private void store(String externalId, UserClientResponse user) {
+        localUsers.put(externalId, user);
+        if (FALSE == REDIS_ENABLED) {
+            return;
+        }
+
+        try {
+            redisClient.get().setex(REDIS_KEY_PREFIX + externalId, TTL_SECONDS.toString(), objectMapper.writeValueAsString(user));
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warnv("Could not store user {0} on Redis: {1}", externalId, e.getMessage());
+        }
+    }
+
+    private Optional<UserClientResponse> readFromRedis(String externalId) {
+        if (FALSE == REDIS_ENABLED) {
+            return Optional.empty();
+        }
+
+        try {
+            val cachedUser = redisClient.get().get(REDIS_KEY_PREFIX + externalId);
+            if (Objects.isNull(cachedUser)) {
+                return Optional.empty();
+            }
+            return Optional.of(objectMapper.readValue(cachedUser.toString(), UserClientResponse.class));
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warnv("Could not read user {0} from Redis, asking the user service: {1}", externalId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private UserClientResponse awaitLookup(CompletableFuture<UserClientResponse> pendingLookup) {
+        try {
+            return pendingLookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
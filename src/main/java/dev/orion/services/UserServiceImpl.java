@@ -1,41 +1,73 @@
 package dev.orion.services;
 
-import dev.orion.client.UserClient;
 import dev.orion.client.dto.UserClientResponse;
 import dev.orion.commom.constant.UserStatus;
 import dev.orion.commom.exception.UserInvalidOperationException;
 import dev.orion.entity.User;
 import dev.orion.services.dto.UserEnhancedWithExternalData;
+import dev.orion.services.dto.UserLookupResult;
 import dev.orion.services.interfaces.UserService;
 import io.quarkus.arc.log.LoggerName;
 import lombok.val;
 import org.eclipse.microprofile.config.ConfigProvider;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 import javax.ws.rs.NotFoundException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
 import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 @Transactional
 public class UserServiceImpl implements UserService {
+    static final Integer LOOKUP_PARALLELISM = ConfigProvider.getConfig().getOptionalValue("activity.enrollment.lookup-parallelism", Integer.class).orElse(8);
+
     @Inject
-    @RestClient
-    UserClient userClient;
+    UserClientCache userClientCache;
 
     @LoggerName("UserServiceImpl")
     Logger logger;
 
+    private ExecutorService lookupExecutor;
+
+    @PostConstruct
+    void setupLookup() {
+        val threadCount = new AtomicInteger();
+        lookupExecutor = Executors.newFixedThreadPool(LOOKUP_PARALLELISM, runnable -> {
+            val thread = new Thread(runnable, "user-lookup-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopLookup() {
+        lookupExecutor.shutdownNow();
+    }
+
 
     @Override
     public UserEnhancedWithExternalData getCompleteUserData(String userExternalId) {
         Optional<User> optUserEntity = User.findUserByExternalId(userExternalId);
 
-        UserClientResponse userClientResponse = Optional.ofNullable(userClient.getUserByExternalId(userExternalId)).orElseThrow(() -> {
+        UserClientResponse userClientResponse = Optional.ofNullable(userClientCache.getUser(userExternalId)).orElseThrow(() -> {
             val userClientURL = ConfigProvider.getConfig().getValue("api.user-service.client/mp-rest/url", String.class);
             val errorMessage = MessageFormat.format("User {0} not found in user service in {1}", userExternalId, userClientURL);
             throw new NotFoundException(errorMessage);
@@ -51,6 +83,59 @@ public class UserServiceImpl implements UserService {
         return new UserEnhancedWithExternalData(userEntity, userClientResponse);
     }
 
+    @Override
+    public UserLookupResult getCompleteUsersData(Collection<String> userExternalIds) {
+        val pendingResponses = userExternalIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(
+                        Function.identity(),
+                        userExternalId -> CompletableFuture.supplyAsync(() -> userClientCache.getUser(userExternalId), lookupExecutor),
+                        (first, second) -> first,
+                        LinkedHashMap::new));
+        val knownUsers = User.findAllByExternalIds(pendingResponses.keySet())
+                .stream()
+                .collect(Collectors.toMap(User::getExternalId, Function.identity()));
+
+//        Users missing on the user service are left out of the result, the ones whose lookup failed are reported apart
+        val completeUsersData = new LinkedHashMap<String, UserEnhancedWithExternalData>();
+        val unavailableUserExternalIds = new LinkedHashSet<String>();
+        pendingResponses.forEach((userExternalId, pendingResponse) -> {
+            final UserClientResponse userClientResponse;
+            try {
+                userClientResponse = awaitResponse(userExternalId, pendingResponse);
+            } catch (CompletionException e) {
+                logger.warnv("Could not get user {0} from user service: {1}", userExternalId, e.getCause().getMessage());
+                unavailableUserExternalIds.add(userExternalId);
+                return;
+            }
+            if (Objects.isNull(userClientResponse)) {
+                return;
+            }
+
+            val userEntity = knownUsers.computeIfAbsent(userExternalId, User::new);
+            if (!userEntity.isPersistent()) {
+                userEntity.persist();
+            }
+            completeUsersData.put(userExternalId, new UserEnhancedWithExternalData(userEntity, userClientResponse));
+        });
+
+        return new UserLookupResult(completeUsersData, unavailableUserExternalIds);
+    }
+
+    //    A not found answer means the user does not exist, any other failure is rethrown as the lookup being unavailable
+    private UserClientResponse awaitResponse(String userExternalId, CompletableFuture<UserClientResponse> pendingResponse) {
+        try {
+            return pendingResponse.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof WebApplicationException
+                    && ((WebApplicationException) e.getCause()).getResponse().getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+                logger.debugv("User {0} not found in user service", userExternalId);
+                return null;
+            }
+            throw e;
+        }
+    }
+
     @Override
     public Long connectUser(String userExternalId) {
         val userResponse = getCompleteUserData(userExternalId);
@@ -60,6 +145,7 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setStatus(UserStatus.CONNECTED);
+        user.activity.touch();
         logger.info(MessageFormat.format("User {0} is connected", userExternalId));
         user.persist();
         return user.id;
@@ -5,40 +5,59 @@ import dev.orion.commom.exception.InvalidActivityActionException;
 import dev.orion.commom.exception.InvalidWorkflowConfiguration;
 import dev.orion.commom.exception.NotValidActionException;
 import dev.orion.entity.*;
+import dev.orion.entity.step_type.SendEmailStep;
 import dev.orion.services.interfaces.WorkflowManageService;
 import dev.orion.util.AggregateException;
 import dev.orion.workflowExecutor.StepExecutor;
+import dev.orion.workflowExecutor.WorkflowPlan;
+import dev.orion.workflowExecutor.impl.OrderedCircleOfWriterStepExecutor;
 import dev.orion.workflowExecutor.impl.SendEmailStepExecutor;
 import dev.orion.workflowExecutor.impl.UnorderedCircleOfWritersStepExecutor;
 import io.quarkus.arc.log.LoggerName;
 import lombok.val;
+import org.hibernate.SessionFactory;
 import org.jboss.logging.Logger;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
 @Transactional
 public class WorkflowManageServiceImpl implements WorkflowManageService {
     private final Map<String, StepExecutor> stepExecutorsMap = new HashMap<>();
+    private final Map<Long, WorkflowPlan> workflowPlans = new ConcurrentHashMap<>();
 
     @Inject
     UnorderedCircleOfWritersStepExecutor unorderedCircleOfWritersStepExecutor;
 
+    @Inject
+    OrderedCircleOfWriterStepExecutor orderedCircleOfWriterStepExecutor;
+
     @Inject
     SendEmailStepExecutor sendEmailStepExecutor;
 
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
     @LoggerName("WorkflowManageServiceImpl")
     Logger logger;
 
     @PostConstruct
     void setupExecutorsMap() {
         stepExecutorsMap.put(unorderedCircleOfWritersStepExecutor.getStepRepresentation(), unorderedCircleOfWritersStepExecutor);
+        stepExecutorsMap.put(orderedCircleOfWriterStepExecutor.getStepRepresentation(), orderedCircleOfWriterStepExecutor);
         stepExecutorsMap.put(sendEmailStepExecutor.getStepRepresentation(), sendEmailStepExecutor);
     }
 
@@ -50,41 +69,39 @@ public class WorkflowManageServiceImpl implements WorkflowManageService {
         }
 
         val actualStage = actualStageOpt.get();
-        if (actualStage.getSteps().isEmpty()) {
-            String errorMessage = MessageFormat.format("There is no steps on workflow \"{0}\" in stage {1}", activity.workflow.getName(), actualStageOpt.get().getActivityStage());
+        if (actualStage.getStepCount() == 0) {
+            String errorMessage = MessageFormat.format("There is no steps on workflow \"{0}\" in stage {1}", activity.workflow.getName(), actualStage.getActivityStage());
             logger.error(errorMessage);
             throw new InvalidWorkflowConfiguration(errorMessage);
         }
 
-        var executionQueue = createExecutionQueue(actualStage.getSteps(), activity, performer, document);
+        validateSteps(actualStage.getBoundSteps(), activity, performer, document);
 
         logger.infov("User {0} can edit the document {1} in activity {2}", performer.getExternalId(), document.getExternalId(), activity.getUuid());
-        while (!executionQueue.isEmpty()) {
-            executionQueue.poll().run();
+        for (val boundStep : actualStage.getBoundSteps()) {
+            boundStep.getStepExecutor().execute(document, performer, boundStep.getStep());
         }
     }
 
-    private Queue<Runnable> createExecutionQueue(List<Step> steps, Activity activity, User performer, Document document) {
-        Queue<Runnable> executionQueue = new LinkedList<>();
-        List<RuntimeException> exceptionList = new ArrayList<>();
+    private void validateSteps(WorkflowPlan.BoundStep[] boundSteps, Activity activity, User performer, Document document) {
+        List<RuntimeException> exceptionList = null;
 
-        steps.stream().filter(this::hasExecutorForStep).forEach(step -> {
-            val stepExecutor = stepExecutorsMap.get(step.getType());
+        for (val boundStep : boundSteps) {
             try {
-                stepExecutor.validate(document, performer, step);
-                executionQueue.add(() -> stepExecutor.execute(document, performer, step));
+                boundStep.getStepExecutor().validate(document, performer, boundStep.getStep());
             } catch (NotValidActionException notValidActionException) {
                 logger.warnv("Step: {0} validation throw when trying to apply to activity: {1}. Message: {2}", notValidActionException.getStepName(), activity.uuid, notValidActionException.getMessage());
+                if (Objects.isNull(exceptionList)) {
+                    exceptionList = new ArrayList<>();
+                }
                 exceptionList.add(notValidActionException);
             }
-        });
+        }
 
 //        Throw together all exceptions provided by each step.
-        if (!exceptionList.isEmpty()) {
+        if (Objects.nonNull(exceptionList)) {
             throw new AggregateException(exceptionList);
         }
-
-        return executionQueue;
     }
 
     @Override
@@ -98,10 +115,51 @@ public class WorkflowManageServiceImpl implements WorkflowManageService {
         workflow.setStages(stages);
 
         workflow.persist();
+        if (Objects.nonNull(workflow.id)) {
+            val workflowId = workflow.id;
+            runAfterCommit(() -> {
+                workflowPlans.remove(workflowId);
+                evictWorkflowFromCache(workflowId);
+            });
+        }
 
         return workflow;
     }
 
+    //    Evicting while the transaction is open lets a concurrent edit compile and cache the plan again from the
+    //    previous version before the update commits, so the plan and the cache regions are only dropped once committed
+    private void runAfterCommit(Runnable action) {
+        if (transactionSynchronizationRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            action.run();
+            return;
+        }
+
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    //    Stages and steps of the previous version are not tracked, so their whole regions go along with the workflow
+    private void evictWorkflowFromCache(Long workflowId) {
+        val cache = sessionFactory.getCache();
+        cache.evictEntityData(Workflow.class, workflowId);
+        cache.evictCollectionData(Workflow.class.getName() + ".stages", workflowId);
+        cache.evictEntityData(Stage.class);
+        cache.evictCollectionData(Stage.class.getName() + ".steps");
+        cache.evictEntityData(Step.class);
+        cache.evictCollectionData(Step.class.getName() + ".allowedStages");
+        cache.evictCollectionData(SendEmailStep.class.getName() + ".activityStageMessageMap");
+    }
+
     private void validateIfWorkflowHasDuringStages(Set<Stage> stages) {
         if (stages.stream().noneMatch(stage -> stage.getActivityStage().equals(ActivityStage.DURING))) {
             throw new InvalidWorkflowConfiguration("Cannot create workflow without have a DURING phase stage");
@@ -139,15 +197,12 @@ public class WorkflowManageServiceImpl implements WorkflowManageService {
             logger.error(exceptionMessage);
             throw new InvalidActivityActionException(exceptionMessage);
         }
-        val steps = stage.getSteps();
-        val stepStream = steps.stream().filter(this::hasExecutorForStep);
-
-        return stepStream.allMatch(step -> stepExecutorsMap.get(step.getType()).isFinished(activity, step));
+        return Arrays.stream(stage.getBoundSteps()).allMatch(boundStep -> boundStep.getStepExecutor().isFinished(activity, boundStep.getStep()));
     }
 
 
-    private Optional<Stage> extractActualStage(Activity activity) {
-        val actualStage = activity.workflow.getStages().stream().filter(stage -> stage.getActivityStage().equals(activity.actualStage)).findFirst();
+    private Optional<WorkflowPlan.StagePlan> extractActualStage(Activity activity) {
+        val actualStage = getWorkflowPlan(activity.workflow).getStagePlan(activity.actualStage);
 
         if (actualStage.isEmpty()) {
             logger.info(MessageFormat.format("There is no {0} stage on activity {1}", activity.actualStage, activity.uuid));
@@ -156,6 +211,15 @@ public class WorkflowManageServiceImpl implements WorkflowManageService {
     }
 
 
+    //    Workflows not persisted yet have no id to be cached by, so they are compiled on every call
+    private WorkflowPlan getWorkflowPlan(Workflow workflow) {
+        if (Objects.isNull(workflow.id)) {
+            return WorkflowPlan.compile(workflow, stepExecutorsMap);
+        }
+
+        return workflowPlans.computeIfAbsent(workflow.id, id -> WorkflowPlan.compile(workflow, stepExecutorsMap));
+    }
+
     private boolean hasExecutorForStep(Step step) {
         return stepExecutorsMap.containsKey(step.getType());
     }
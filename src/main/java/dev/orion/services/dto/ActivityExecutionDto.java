@@ -12,4 +12,9 @@ public class ActivityExecutionDto {
     String documentExternalId;
     String userExternalId;
     String content;
+    UUID messageKey;
+
+    public ActivityExecutionDto(UUID activityUUID, String documentExternalId, String userExternalId, String content) {
+        this(activityUUID, documentExternalId, userExternalId, content, null);
+    }
 }
@@ -0,0 +1,46 @@
+package dev.orion.services.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import dev.orion.commom.constant.ActivityStage;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read model of an activity, built straight from a query instead of walking the entity graph. Groups and documents
+ * are only filled when asked for.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ActivitySummary {
+    private UUID uuid;
+    private ActivityStage actualStage;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String createdBy;
+    private String workflowName;
+    private Long participantCount;
+    private Long version;
+    private List<GroupSummary> groups;
+    private List<DocumentSummary> documents;
+
+    public ActivitySummary(UUID uuid, ActivityStage actualStage, Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt,
+                           String createdBy, String workflowName, Long participantCount, Long version) {
+        this.uuid = uuid;
+        this.actualStage = actualStage;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.createdBy = createdBy;
+        this.workflowName = workflowName;
+        this.participantCount = participantCount;
+        this.version = version;
+    }
+}
@@ -0,0 +1,19 @@
+package dev.orion.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSummary {
+    private UUID groupUuid;
+    private String externalId;
+    private Integer rounds;
+    private Integer remainingWriters;
+}
@@ -0,0 +1,20 @@
+package dev.orion.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSummary {
+    private UUID uuid;
+    private Integer capacity;
+    private List<String> participants = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package dev.orion.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserEnrollmentResult {
+    private String userExternalId;
+    private boolean enrolled;
+    private String error;
+    //    Set when the user could not be looked up, so the same enrollment can be sent again
+    private boolean retryable;
+
+    public static UserEnrollmentResult enrolled(String userExternalId) {
+        return new UserEnrollmentResult(userExternalId, true, null, false);
+    }
+
+    public static UserEnrollmentResult rejected(String userExternalId, String error) {
+        return new UserEnrollmentResult(userExternalId, false, error, false);
+    }
+
+    public static UserEnrollmentResult unavailable(String userExternalId, String error) {
+        return new UserEnrollmentResult(userExternalId, false, error, true);
+    }
+}
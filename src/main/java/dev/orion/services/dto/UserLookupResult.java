@@ -0,0 +1,22 @@
+package dev.orion.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Users found by a bulk lookup on the user service. Users the user service does not know are left out, while users
+ * whose lookup failed, on a timeout or a server error, are kept apart since asking again may find them.
+ */
+@Getter
+@AllArgsConstructor
+public class UserLookupResult {
+    private Map<String, UserEnhancedWithExternalData> users;
+    private Set<String> unavailableUserExternalIds;
+
+    public boolean isUnavailable(String userExternalId) {
+        return unavailableUserExternalIds.contains(userExternalId);
+    }
+}
@@ -0,0 +1,13 @@
+package dev.orion.services.interfaces;
+
+import dev.orion.services.dto.ActivitySummary;
+
+import java.util.Set;
+import java.util.UUID;
+
+public interface ActivityQueryService {
+    String EXPAND_GROUPS = "groups";
+    String EXPAND_DOCUMENTS = "documents";
+
+    ActivitySummary getActivitySummary(UUID activityUuid, Set<String> expand);
+}
@@ -4,8 +4,10 @@ import dev.orion.commom.exception.InvalidActivityActionException;
 import dev.orion.entity.Activity;
 import dev.orion.entity.Document;
 import dev.orion.services.dto.ActivityExecutionDto;
+import dev.orion.services.dto.UserEnrollmentResult;
 
 import javax.ws.rs.NotFoundException;
+import java.util.List;
 import java.util.UUID;
 
 public interface ActivityService {
@@ -13,6 +15,8 @@ public interface ActivityService {
 
     Activity addUserInActivity(UUID activityUuid, String userExternalId);
 
+    List<UserEnrollmentResult> addUsersInActivity(UUID activityUuid, List<String> userExternalIds);
+
     Activity removeUserFromActivity(UUID activityUuid, String userExternalId);
 
     void disconnectUserFromActivity(UUID activityUuid, String userExternalId);
@@ -22,4 +26,6 @@ public interface ActivityService {
     Activity startActivity(UUID activityUUID);
 
     Activity execute(ActivityExecutionDto ActivityExecutionDto);
+
+    List<Activity> executeBatch(List<ActivityExecutionDto> activityExecutionDtos);
 }
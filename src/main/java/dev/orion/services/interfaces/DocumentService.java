@@ -3,6 +3,7 @@ package dev.orion.services.interfaces;
 import dev.orion.entity.Document;
 import dev.orion.entity.User;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -11,7 +12,11 @@ public interface DocumentService {
     void editContent(Document document, String content, String externalUserId);
     Document createDocument(UUID uuid, String initialContent, Set<User> editors);
 
+    List<Document> createDocuments(String initialContent, List<Set<User>> editorsPerDocument);
+
     void moveParticipantToEditedList(Document document, User user);
 
     void moveAllUsersFromEditedToParticipantList(String documentExternalId);
+
+    void moveAllUsersFromEditedToParticipantList(Document document);
 }
@@ -5,12 +5,14 @@ import dev.orion.entity.Document;
 import dev.orion.entity.GroupActivity;
 import dev.orion.entity.User;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 public interface GroupService {
     GroupActivity createGroup(Activity activity);
     GroupActivity createGroup(Activity activity, Set<User> users);
+    List<GroupActivity> createGroups(Activity activity, Set<User> users, int groupSize);
 //    Adds for test facility
     void addUserToGroup(GroupActivity group, User user, Document document);
     void addUserToGroup(UUID groupUUID, User user, Document document);
@@ -1,8 +1,12 @@
 package dev.orion.services.interfaces;
 
 import dev.orion.services.dto.UserEnhancedWithExternalData;
+import dev.orion.services.dto.UserLookupResult;
+
+import java.util.Collection;
 
 public interface UserService {
     public UserEnhancedWithExternalData getCompleteUserData(String userExternalId);
+    public UserLookupResult getCompleteUsersData(Collection<String> userExternalIds);
     public Long connectUser(String userExternalId);
 }
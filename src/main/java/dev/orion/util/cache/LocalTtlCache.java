@@ -0,0 +1,72 @@
+package dev.orion.util.cache;
+
+import lombok.val;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Small in-memory cache bounded by size, evicting the least recently used entry, where every entry expires after
+ * a fixed time to live.
+ */
+public class LocalTtlCache<K, V> {
+    private final long ttlNanos;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    public LocalTtlCache(int maxEntries, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(K key) {
+        val entry = entries.get(key);
+        if (Objects.isNull(entry)) {
+            return Optional.empty();
+        }
+
+        if (entry.isExpired()) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+
+        return Optional.of(entry.value);
+    }
+
+    public synchronized boolean contains(K key) {
+        return get(key).isPresent();
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new CacheEntry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class CacheEntry<V> {
+        final V value;
+        final long expiresAt;
+
+        CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
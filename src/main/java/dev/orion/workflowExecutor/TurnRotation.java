@@ -0,0 +1,64 @@
+package dev.orion.workflowExecutor;
+
+import dev.orion.commom.constant.CircularStepFlowDirectionTypes;
+import dev.orion.entity.Document;
+import dev.orion.entity.User;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Precomputed writing order of a document for ordered circular steps. Writers are placed by external id, so every
+ * node builds the same rotation from the same participants, and each turn is mapped to a writer position following
+ * the flow direction. Finding the writer of a turn is a pair of array reads.
+ */
+public class TurnRotation {
+    private final User[] writers;
+    private final int[] order;
+    @Getter
+    private final CircularStepFlowDirectionTypes flowDirection;
+    private final int participantsVersion;
+
+    private TurnRotation(User[] writers, int[] order, CircularStepFlowDirectionTypes flowDirection, int participantsVersion) {
+        this.writers = writers;
+        this.order = order;
+        this.flowDirection = flowDirection;
+        this.participantsVersion = participantsVersion;
+    }
+
+    public static TurnRotation of(Document document, CircularStepFlowDirectionTypes flowDirection) {
+        return of(document.getParticipantsAssigned(), flowDirection, document.getParticipantsVersion());
+    }
+
+    public static TurnRotation of(Collection<User> participants, CircularStepFlowDirectionTypes flowDirection, int participantsVersion) {
+        val writers = participants.stream()
+                .sorted(Comparator.comparing(User::getExternalId))
+                .toArray(User[]::new);
+        val order = new int[writers.length];
+        for (int turn = 0; turn < order.length; turn++) {
+            order[turn] = flowDirection == CircularStepFlowDirectionTypes.FROM_END_TO_BEGIN ? order.length - 1 - turn : turn;
+        }
+
+        return new TurnRotation(writers, order, flowDirection, participantsVersion);
+    }
+
+    public User writerAt(int turnPosition) {
+        return writers[order[Math.floorMod(turnPosition, order.length)]];
+    }
+
+    public boolean isTurnOf(User user, int turnPosition) {
+        return writers.length > 0 && writerAt(turnPosition).equals(user);
+    }
+
+    //    A rotation only stays valid for the exact participants it was built from, a swapped writer changes the order.
+    //    Any change of the assigned participants moves the document participants version, so comparing it is enough
+    public boolean isBuiltFrom(Document document, CircularStepFlowDirectionTypes flowDirection) {
+        return this.flowDirection == flowDirection && participantsVersion == document.getParticipantsVersion();
+    }
+
+    public int size() {
+        return writers.length;
+    }
+}
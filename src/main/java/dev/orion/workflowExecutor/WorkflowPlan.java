@@ -0,0 +1,67 @@
+package dev.orion.workflowExecutor;
+
+import dev.orion.commom.constant.ActivityStage;
+import dev.orion.entity.*;
+import dev.orion.entity.step_type.SendEmailStep;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.val;
+import org.hibernate.Hibernate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable execution plan of a workflow: for every stage, its steps already bound to their executors, in workflow
+ * order. Steps without an executor are left out. Lazy step data is loaded while compiling so the plan can outlive
+ * the persistence context that loaded the workflow.
+ */
+public class WorkflowPlan {
+    private final EnumMap<ActivityStage, StagePlan> stagePlans = new EnumMap<>(ActivityStage.class);
+
+    private WorkflowPlan() {
+    }
+
+    public static WorkflowPlan compile(Workflow workflow, Map<String, StepExecutor> stepExecutorsMap) {
+        val workflowPlan = new WorkflowPlan();
+        workflow.getStages().forEach(stage -> {
+            val boundSteps = new ArrayList<BoundStep>();
+            stage.getSteps().forEach(step -> {
+                Hibernate.initialize(step.getAllowedStages());
+                if (step instanceof SendEmailStep) {
+                    Hibernate.initialize(((SendEmailStep) step).getActivityStageMessageMap());
+                }
+                val stepExecutor = stepExecutorsMap.get(step.getType());
+                if (Objects.nonNull(stepExecutor)) {
+                    boundSteps.add(new BoundStep(stepExecutor, step));
+                }
+            });
+            workflowPlan.stagePlans.put(stage.getActivityStage(), new StagePlan(stage.getActivityStage(), stage.getSteps().size(), boundSteps.toArray(BoundStep[]::new)));
+        });
+
+        return workflowPlan;
+    }
+
+    public Optional<StagePlan> getStagePlan(ActivityStage activityStage) {
+        return Optional.ofNullable(stagePlans.get(activityStage));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StagePlan {
+        private final ActivityStage activityStage;
+        //        Counts every configured step, including those without an executor
+        private final int stepCount;
+        private final BoundStep[] boundSteps;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BoundStep {
+        private final StepExecutor stepExecutor;
+        private final Step step;
+    }
+}
@@ -0,0 +1,135 @@
+package dev.orion.workflowExecutor.impl;
+
+import dev.orion.commom.exception.InvalidWorkflowConfiguration;
+import dev.orion.commom.exception.NotValidActionException;
+import dev.orion.entity.*;
+import dev.orion.entity.step_type.OrderedCircleOfWriter;
+import dev.orion.services.interfaces.DocumentService;
+import dev.orion.util.cache.LocalTtlCache;
+import dev.orion.workflowExecutor.StepExecutor;
+import dev.orion.workflowExecutor.TurnRotation;
+import io.quarkus.arc.log.LoggerName;
+import lombok.val;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Objects;
+
+@ApplicationScoped
+public class OrderedCircleOfWriterStepExecutor implements StepExecutor {
+    static final Integer ROTATION_CACHE_SIZE = ConfigProvider.getConfig().getOptionalValue("activity.ordered-writers.rotation-cache-size", Integer.class).orElse(10_000);
+    static final Long ROTATION_TTL_SECONDS = ConfigProvider.getConfig().getOptionalValue("activity.ordered-writers.rotation-ttl-seconds", Long.class).orElse(3600L);
+
+    //    Rotations of documents still being written, dropped once their last round is done. The cache is bounded, so
+    //    documents abandoned before their last round are evicted too and rebuilt on their next edit
+    private final LocalTtlCache<String, TurnRotation> turnRotations = new LocalTtlCache<>(ROTATION_CACHE_SIZE, Duration.ofSeconds(ROTATION_TTL_SECONDS));
+
+    @LoggerName("OrderedCircleOfWriterStepExecutor")
+    Logger logger;
+    @Inject
+    DocumentService documentService;
+
+    @Override
+    public void execute(Document document, User user, Step step) {
+        documentNullValidation(document);
+
+        val orderedCircleOfWriter = (OrderedCircleOfWriter) step;
+        if (!isTurnOf(document, user, orderedCircleOfWriter)) {
+            logger.warnv("It is not the turn of user {0} in document {1}", user.getExternalId(), document.getExternalId());
+            return;
+        }
+
+        document.passTurn();
+        advanceDocumentRoundAndResetForNextRound(document, orderedCircleOfWriter);
+    }
+
+    private void advanceDocumentRoundAndResetForNextRound(Document document, OrderedCircleOfWriter orderedCircleOfWriter) {
+        if (!document.isRoundFinished()) {
+            return;
+        }
+
+        if (isFinalRound(document, orderedCircleOfWriter)) {
+            turnRotations.invalidate(document.getExternalId());
+            return;
+        }
+
+        val newRoundValue = document.getRounds() + 1;
+        logger.infov("The document {0} will advance the round from {1} to {2}", document.getExternalId(), document.getRounds(), newRoundValue);
+        document.setRounds(newRoundValue);
+        documentService.moveAllUsersFromEditedToParticipantList(document);
+    }
+
+    private boolean isFinalRound(Document document, OrderedCircleOfWriter orderedCircleOfWriter) {
+        return orderedCircleOfWriter.getRounds() <= document.getRounds();
+    }
+
+    private boolean isTurnOf(Document document, User user, OrderedCircleOfWriter orderedCircleOfWriter) {
+        if (document.isRoundFinished()) {
+            return false;
+        }
+
+        return getTurnRotation(document, orderedCircleOfWriter).isTurnOf(user, document.getTurnPosition());
+    }
+
+    public TurnRotation getTurnRotation(Document document, OrderedCircleOfWriter orderedCircleOfWriter) {
+        val flowDirection = orderedCircleOfWriter.getFlowDirection();
+
+        val cachedRotation = turnRotations.get(document.getExternalId());
+        if (cachedRotation.isPresent() && cachedRotation.get().isBuiltFrom(document, flowDirection)) {
+            return cachedRotation.get();
+        }
+
+        val turnRotation = TurnRotation.of(document, flowDirection);
+        turnRotations.put(document.getExternalId(), turnRotation);
+        return turnRotation;
+    }
+
+    @Override
+    public void validate(Document document, User user, Step step) {
+        documentNullValidation(document);
+
+        if (!isTurnOf(document, user, (OrderedCircleOfWriter) step)) {
+            val exceptionMessage = MessageFormat.format("It is not the turn of user {0} in document {1}", user.getExternalId(), document.getExternalId());
+            throw new NotValidActionException(getStepRepresentation(), exceptionMessage);
+        }
+    }
+
+    @Override
+    public boolean isFinished(Activity activity, Step step) throws NotValidActionException {
+        if (Document.countByActivity(activity.uuid) == 0) {
+            throw new NotValidActionException(getStepRepresentation(), "document must not be null");
+        }
+
+        return Document.countUnfinishedByActivity(activity.uuid, ((OrderedCircleOfWriter) step).getRounds()) == 0;
+    }
+
+    @Override
+    public void validateConfig(Stage stage) {
+        val step = stage.getSteps().stream()
+                .filter(stepFilter -> stepFilter.getStepType() == getStepRepresentation())
+                .findFirst()
+                .orElseThrow(() -> {
+                    throw new InvalidWorkflowConfiguration(MessageFormat.format("There is no step {0} on the stage with ID {1}", getStepRepresentation(), stage.id));
+                });
+        if (!step.getAllowedStages().contains(stage.getActivityStage())) {
+            val message = MessageFormat.format("The step {0} can be placed only in stages {1}", step.getStepType(), step.getAllowedStages());
+            throw new InvalidWorkflowConfiguration(message);
+        }
+    }
+
+    private void documentNullValidation(Document document) {
+        if (Objects.isNull(document)) {
+            val exceptionMessage = "document must not be null";
+            throw new NotValidActionException(getStepRepresentation(), exceptionMessage);
+        }
+    }
+
+    @Override
+    public String getStepRepresentation() {
+        return new OrderedCircleOfWriter().getStepType();
+    }
+}
@@ -47,7 +47,7 @@ public class UnorderedCircleOfWritersStepExecutor implements StepExecutor {
             val newRoundValue = document.getRounds() + 1;
             logger.infov("The document {0} will advance the round from {1} to {2}", document.getExternalId(), document.getRounds(), newRoundValue);
             document.setRounds(newRoundValue);
-            documentService.moveAllUsersFromEditedToParticipantList(document.getExternalId());
+            documentService.moveAllUsersFromEditedToParticipantList(document);
         }
 
     }
@@ -57,7 +57,7 @@ public class UnorderedCircleOfWritersStepExecutor implements StepExecutor {
     }
 
     private boolean doesAllParticipantsHaveParticipated(Document document) {
-        return document.getParticipantsAssigned().isEmpty();
+        return document.isRoundFinished();
     }
 
     @Override
@@ -72,12 +72,11 @@ public class UnorderedCircleOfWritersStepExecutor implements StepExecutor {
 
     @Override
     public boolean isFinished(Activity activity, Step step) throws NotValidActionException {
-        val documents = Document.findAllByGroupActivity(activity.uuid);
-        if (documents.isEmpty()) {
+        if (Document.countByActivity(activity.uuid) == 0) {
             throw new NotValidActionException(getStepRepresentation(), "document must not be null");
         }
-        val document = documents.get(0);
-        return doesAllParticipantsHaveParticipated(document) && isFinalRound(document, (UnorderedCircleOfWriters) step);
+
+        return Document.countUnfinishedByActivity(activity.uuid, ((UnorderedCircleOfWriters) step).getRounds()) == 0;
 
     }
 
@@ -0,0 +1,160 @@
+-- Schema as generated from the entities before migrations were introduced, with steps still stored in one table per
+-- step type. Databases created before it are baselined at this version instead of running it.
+CREATE TABLE hibernate_sequence
+(
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO hibernate_sequence (next_val)
+VALUES (1);
+
+CREATE TABLE Workflow
+(
+    id          BIGINT       NOT NULL,
+    description VARCHAR(500),
+    name        VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE Stage
+(
+    id            BIGINT       NOT NULL,
+    activityStage VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE Workflow_Stage
+(
+    Workflow_id BIGINT NOT NULL,
+    stages_id   BIGINT NOT NULL,
+    PRIMARY KEY (Workflow_id, stages_id),
+    CONSTRAINT UK_WORKFLOW_STAGE_STAGES UNIQUE (stages_id),
+    CONSTRAINT FK_WORKFLOW_STAGE_WORKFLOW FOREIGN KEY (Workflow_id) REFERENCES Workflow (id),
+    CONSTRAINT FK_WORKFLOW_STAGE_STAGE FOREIGN KEY (stages_id) REFERENCES Stage (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE SendEmailStep
+(
+    id             BIGINT       NOT NULL,
+    description    VARCHAR(255),
+    type           VARCHAR(255) NOT NULL,
+    onlyForCreator BIT          NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE UnorderedCircleOfWriters
+(
+    id          BIGINT       NOT NULL,
+    description VARCHAR(255),
+    type        VARCHAR(255) NOT NULL,
+    rounds      INTEGER,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE OrderedCircleOfWriter
+(
+    id            BIGINT       NOT NULL,
+    description   VARCHAR(255),
+    type          VARCHAR(255) NOT NULL,
+    flowDirection INTEGER      NOT NULL,
+    rounds        INTEGER,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Steps of every type share the id sequence, the step tables can not be referenced through a single foreign key
+CREATE TABLE Stage_Step
+(
+    Stage_id    BIGINT  NOT NULL,
+    steps_id    BIGINT  NOT NULL,
+    steps_ORDER INTEGER NOT NULL,
+    PRIMARY KEY (Stage_id, steps_ORDER),
+    CONSTRAINT FK_STAGE_STEP_STAGE FOREIGN KEY (Stage_id) REFERENCES Stage (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE ALLOWED_STAGE_FOR_STEP
+(
+    Step_id       BIGINT NOT NULL,
+    allowedStages VARCHAR(255)
+) ENGINE = InnoDB;
+
+CREATE TABLE ACTIVITY_STAGE_EMAIL_MESSAGE
+(
+    SendEmailStep_id            BIGINT  NOT NULL,
+    activityStageMessageMap     VARCHAR(255),
+    activityStageMessageMap_KEY INTEGER NOT NULL,
+    PRIMARY KEY (SendEmailStep_id, activityStageMessageMap_KEY),
+    CONSTRAINT FK_ACTIVITY_STAGE_EMAIL_MESSAGE_SEND_EMAIL_STEP FOREIGN KEY (SendEmailStep_id) REFERENCES SendEmailStep (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE User
+(
+    id                 BIGINT       NOT NULL,
+    createdAt          DATETIME(6),
+    externalId         VARCHAR(255) NOT NULL,
+    user_status        VARCHAR(255) NOT NULL,
+    updatedAt          DATETIME(6),
+    activity_uuid      BINARY(16),
+    groupActivity_uuid BINARY(16),
+    PRIMARY KEY (id),
+    CONSTRAINT UK_USER_EXTERNAL_ID UNIQUE (externalId)
+) ENGINE = InnoDB;
+
+CREATE TABLE Activity
+(
+    uuid        BINARY(16) NOT NULL,
+    actualStage INTEGER,
+    createdAt   DATETIME(6),
+    isActive    BIT        NOT NULL,
+    updatedAt   DATETIME(6),
+    creator_id  BIGINT     NOT NULL,
+    workflow_id BIGINT     NOT NULL,
+    PRIMARY KEY (uuid),
+    CONSTRAINT FK_ACTIVITY_CREATOR FOREIGN KEY (creator_id) REFERENCES User (id),
+    CONSTRAINT FK_ACTIVITY_WORKFLOW FOREIGN KEY (workflow_id) REFERENCES Workflow (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE GroupActivity
+(
+    uuid               BINARY(16) NOT NULL,
+    capacity           INTEGER,
+    activityOwner_uuid BINARY(16) NOT NULL,
+    PRIMARY KEY (uuid),
+    CONSTRAINT FK_GROUP_ACTIVITY_OWNER FOREIGN KEY (activityOwner_uuid) REFERENCES Activity (uuid)
+) ENGINE = InnoDB;
+
+ALTER TABLE User
+    ADD CONSTRAINT FK_USER_ACTIVITY FOREIGN KEY (activity_uuid) REFERENCES Activity (uuid);
+
+ALTER TABLE User
+    ADD CONSTRAINT FK_USER_GROUP_ACTIVITY FOREIGN KEY (groupActivity_uuid) REFERENCES GroupActivity (uuid);
+
+CREATE TABLE Document
+(
+    id               BIGINT       NOT NULL,
+    externalId       VARCHAR(255) NOT NULL,
+    rounds           INTEGER,
+    groupActivity_id BINARY(16),
+    user_starter_id  BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_DOCUMENT_EXTERNAL_ID UNIQUE (externalId),
+    CONSTRAINT FK_DOCUMENT_GROUP_ACTIVITY FOREIGN KEY (groupActivity_id) REFERENCES GroupActivity (uuid),
+    CONSTRAINT FK_DOCUMENT_USER_STARTER FOREIGN KEY (user_starter_id) REFERENCES User (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE DOCUMENT_EDITORS
+(
+    document_id    BIGINT NOT NULL,
+    participant_id BIGINT NOT NULL,
+    PRIMARY KEY (document_id, participant_id),
+    CONSTRAINT FK_DOCUMENT_EDITORS_DOCUMENT FOREIGN KEY (document_id) REFERENCES Document (id),
+    CONSTRAINT FK_DOCUMENT_EDITORS_PARTICIPANT FOREIGN KEY (participant_id) REFERENCES User (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE ASSIGNED_PARTICIPANTS
+(
+    document_id    BIGINT NOT NULL,
+    participant_id BIGINT NOT NULL,
+    PRIMARY KEY (document_id, participant_id),
+    CONSTRAINT FK_ASSIGNED_PARTICIPANTS_DOCUMENT FOREIGN KEY (document_id) REFERENCES Document (id),
+    CONSTRAINT FK_ASSIGNED_PARTICIPANTS_PARTICIPANT FOREIGN KEY (participant_id) REFERENCES User (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,30 @@
+-- Columns and tables added to the entities after the initial schema. Existing rows are backfilled: activities start
+-- at version 0, documents have every assigned participant still to write and the turn at the first of them.
+ALTER TABLE Activity
+    ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE Document
+    ADD COLUMN remainingWriters INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE Document
+    ADD COLUMN turnPosition INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE Document
+SET remainingWriters = (SELECT COUNT(*) FROM ASSIGNED_PARTICIPANTS ap WHERE ap.document_id = Document.id);
+
+-- Messages waiting to be relayed to the broker, written in the transaction of the change they announce
+CREATE TABLE OutboxMessage
+(
+    id              BIGINT       NOT NULL,
+    contentEncoding VARCHAR(255),
+    contentType     VARCHAR(255) NOT NULL,
+    createdAt       DATETIME(6),
+    partitionKey    INTEGER      NOT NULL,
+    payload         LONGBLOB     NOT NULL,
+    queueName       VARCHAR(255) NOT NULL,
+    relayPartition  INTEGER      NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Next outbox batch of a relay worker, in insertion order
+CREATE INDEX IDX_OUTBOX_MESSAGE_RELAY_PARTITION ON OutboxMessage (relayPartition, id);
@@ -0,0 +1,54 @@
+-- Steps move from one table per step type to a single Step table told apart by STEP_TYPE, so loading the steps of a
+-- stage reads one table instead of a union of every step type table. Ids come from the shared hibernate_sequence and
+-- are unique across the old tables, rows keep their ids.
+CREATE TABLE Step
+(
+    STEP_TYPE      VARCHAR(31)  NOT NULL,
+    id             BIGINT       NOT NULL,
+    description    VARCHAR(255),
+    type           VARCHAR(255) NOT NULL,
+    onlyForCreator BIT,
+    rounds         INTEGER,
+    flowDirection  INTEGER,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO Step (STEP_TYPE, id, description, type, onlyForCreator)
+SELECT 'SEND_EMAIL', id, description, type, onlyForCreator
+FROM SendEmailStep;
+
+INSERT INTO Step (STEP_TYPE, id, description, type, rounds)
+SELECT 'UNORDERED_CIRCLE_OF_WRITES', id, description, type, rounds
+FROM UnorderedCircleOfWriters;
+
+INSERT INTO Step (STEP_TYPE, id, description, type, rounds, flowDirection)
+SELECT 'ORDERED_CIRCLE_OF_WRITERS', id, description, type, rounds, flowDirection
+FROM OrderedCircleOfWriter;
+
+-- The email messages reference SendEmailStep through a generated foreign key name, the table is rebuilt to point at Step
+CREATE TABLE ACTIVITY_STAGE_EMAIL_MESSAGE_NEW
+(
+    SendEmailStep_id            BIGINT  NOT NULL,
+    activityStageMessageMap     VARCHAR(255),
+    activityStageMessageMap_KEY INTEGER NOT NULL,
+    PRIMARY KEY (SendEmailStep_id, activityStageMessageMap_KEY),
+    CONSTRAINT FK_ACTIVITY_STAGE_EMAIL_MESSAGE_STEP FOREIGN KEY (SendEmailStep_id) REFERENCES Step (id)
+) ENGINE = InnoDB;
+
+INSERT INTO ACTIVITY_STAGE_EMAIL_MESSAGE_NEW (SendEmailStep_id, activityStageMessageMap, activityStageMessageMap_KEY)
+SELECT SendEmailStep_id, activityStageMessageMap, activityStageMessageMap_KEY
+FROM ACTIVITY_STAGE_EMAIL_MESSAGE;
+
+DROP TABLE ACTIVITY_STAGE_EMAIL_MESSAGE;
+ALTER TABLE ACTIVITY_STAGE_EMAIL_MESSAGE_NEW RENAME TO ACTIVITY_STAGE_EMAIL_MESSAGE;
+
+DROP TABLE SendEmailStep;
+DROP TABLE UnorderedCircleOfWriters;
+DROP TABLE OrderedCircleOfWriter;
+
+-- With a single table the step references can finally be enforced
+ALTER TABLE ALLOWED_STAGE_FOR_STEP
+    ADD CONSTRAINT FK_ALLOWED_STAGE_FOR_STEP_STEP FOREIGN KEY (Step_id) REFERENCES Step (id);
+
+ALTER TABLE Stage_Step
+    ADD CONSTRAINT FK_STAGE_STEP_STEP FOREIGN KEY (steps_id) REFERENCES Step (id);
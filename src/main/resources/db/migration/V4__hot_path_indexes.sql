@@ -0,0 +1,19 @@
+-- Indexes for the lookups done on every edit or join, mirrored by the @Index declarations of the entities.
+-- docs/sql/hot_path_query_plans.sql shows the plans using them.
+
+-- Documents of a group; remainingWriters and rounds make the unfinished document count an index-only read
+CREATE INDEX IDX_DOCUMENT_GROUP_ACTIVITY ON Document (groupActivity_id, remainingWriters, rounds);
+
+-- Documents a participant was assigned to or already edited, the primary keys only serve lookups by document
+CREATE INDEX IDX_ASSIGNED_PARTICIPANTS_PARTICIPANT ON ASSIGNED_PARTICIPANTS (participant_id, document_id);
+CREATE INDEX IDX_DOCUMENT_EDITORS_PARTICIPANT ON DOCUMENT_EDITORS (participant_id, document_id);
+
+-- Participants of an activity and of a group
+CREATE INDEX IDX_USER_ACTIVITY ON User (activity_uuid);
+CREATE INDEX IDX_USER_GROUP_ACTIVITY ON User (groupActivity_uuid);
+
+-- Groups of an activity
+CREATE INDEX IDX_GROUP_ACTIVITY_OWNER ON GroupActivity (activityOwner_uuid);
+
+-- Workflow lookup by name on activity creation and workflow updates
+CREATE INDEX IDX_WORKFLOW_NAME ON Workflow (name);
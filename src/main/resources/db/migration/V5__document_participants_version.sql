@@ -0,0 +1,3 @@
+-- Counter of the changes to the assigned participants of a document, existing documents start at 0.
+ALTER TABLE Document
+    ADD COLUMN participantsVersion INTEGER DEFAULT 0 NOT NULL;
@@ -0,0 +1,9 @@
+-- Empty documents created ahead of time on the document service, claimed in the transaction that uses them.
+CREATE TABLE PooledDocument
+(
+    id         BIGINT       NOT NULL,
+    createdAt  DATETIME(6),
+    externalId VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_POOLED_DOCUMENT_EXTERNAL_ID UNIQUE (externalId)
+) ENGINE = InnoDB;
@@ -483,6 +483,41 @@ public class ActivityEndpointTest {
         Assertions.assertTrue(responseBody.getErrors().contains(expectedMessage));
     }
 
+    @Test
+    @DisplayName("[/{activityUuid} - GET] Should answer not modified from the version when the ETag matches")
+    public void testFindActivityConditionalGet() {
+        mockHibernateSession();
+        val activity = mockActivityCreation();
+        val entityTag = given()
+                .pathParam("activityUuid", activity.uuid)
+                .when()
+                .get("/{activityUuid}")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .header("ETag", notNullValue())
+                .extract()
+                .header("ETag");
+
+        when(Activity.findVersion(activity.uuid)).thenReturn(Optional.of(0L));
+        given()
+                .header("If-None-Match", entityTag)
+                .pathParam("activityUuid", activity.uuid)
+                .when()
+                .get("/{activityUuid}")
+                .then()
+                .statusCode(Response.Status.NOT_MODIFIED.getStatusCode());
+        PanacheMock.verify(Activity.class, times(1)).findByIdOptional(activity.uuid);
+
+        when(Activity.findVersion(activity.uuid)).thenReturn(Optional.of(1L));
+        given()
+                .header("If-None-Match", entityTag)
+                .pathParam("activityUuid", activity.uuid)
+                .when()
+                .get("/{activityUuid}")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+    }
+
     private <T> T requestFindActivity(UUID activityUuid, Class<T> responseClass, int expectedStatusCode) {
         return given()
                 .contentType(MediaType.APPLICATION_JSON)
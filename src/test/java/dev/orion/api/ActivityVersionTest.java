@@ -0,0 +1,80 @@
+package dev.orion.api;
+
+import dev.orion.client.UserClient;
+import dev.orion.entity.Activity;
+import dev.orion.fixture.ActivityFixture;
+import dev.orion.fixture.UserFixture;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectMock;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.transaction.UserTransaction;
+import javax.ws.rs.core.Response;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+
+@QuarkusTest
+public class ActivityVersionTest {
+    @Inject
+    UserTransaction userTransaction;
+
+    @InjectMock
+    @RestClient
+    UserClient userClient;
+
+    @Test
+    @DisplayName("[/v1/activities/{activityUuid} - GET] Should serve a new ETag once a participant connects")
+    @SneakyThrows
+    public void testEntityTagChangesAfterConnectUser() {
+        userTransaction.begin();
+        val creator = UserFixture.generateUser();
+        creator.persist();
+        val activity = ActivityFixture.generateActivity(creator);
+        activity.uuid = null;
+        activity.workflow.setName(UUID.randomUUID().toString());
+        val participant = UserFixture.generateUser();
+        activity.addParticipant(creator);
+        activity.addParticipant(participant);
+        activity.persist();
+        userTransaction.commit();
+        UserFixture.mockUserClient(userClient, participant.externalId);
+
+        val entityTag = given()
+                .pathParam("activityUuid", activity.uuid)
+                .when()
+                .get("/v1/activities/{activityUuid}")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract()
+                .header("ETag");
+
+        given()
+                .pathParam("externalId", participant.externalId)
+                .when()
+                .patch("/v1/users/{externalId}/connect")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode());
+
+        val newEntityTag = given()
+                .header("If-None-Match", entityTag)
+                .pathParam("activityUuid", activity.uuid)
+                .when()
+                .get("/v1/activities/{activityUuid}")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .extract()
+                .header("ETag");
+
+        Assertions.assertNotEquals(entityTag, newEntityTag);
+        userTransaction.begin();
+        Assertions.assertEquals(1L, Activity.findVersion(activity.uuid).orElseThrow());
+        userTransaction.commit();
+    }
+}
@@ -0,0 +1,104 @@
+package dev.orion.broker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.orion.broker.dto.ActivityUpdateMessageDto;
+import dev.orion.broker.dto.DocumentEditDto;
+import dev.orion.broker.dto.DocumentUpdateDto;
+import dev.orion.commom.constant.ActivityStage;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput and allocation per message of the broker hot path, comparing a new ObjectMapper per message, as the
+ * consumer and producers did before, with the shared readers and writers of {@link BrokerSerializer}. Run it after
+ * {@code mvn test-compile} with the main method on the test classpath; gc.alloc.rate.norm is the allocation per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BrokerSerializerBenchmark {
+    private BrokerSerializer brokerSerializer;
+    private byte[] documentEditBody;
+    private DocumentUpdateDto documentUpdate;
+    private ActivityUpdateMessageDto activityUpdate;
+
+    @Setup
+    public void setup() throws IOException {
+        brokerSerializer = new BrokerSerializer();
+
+        val documentEdit = new DocumentEditDto();
+        documentEdit.activityId = UUID.randomUUID();
+        documentEdit.externalUserId = UUID.randomUUID().toString();
+        documentEdit.documentId = UUID.randomUUID().toString();
+        documentEdit.documentContent = "Lorem ipsum dolor sit amet. ".repeat(40);
+        documentEdit.messageKey = UUID.randomUUID();
+        documentEditBody = new ObjectMapper().writeValueAsBytes(documentEdit);
+
+        documentUpdate = new DocumentUpdateDto(documentEdit.documentId, documentEdit.documentContent, documentEdit.externalUserId, documentEdit.messageKey);
+
+        activityUpdate = new ActivityUpdateMessageDto();
+        activityUpdate.uuid = documentEdit.activityId;
+        activityUpdate.isActive = true;
+        activityUpdate.activityStage = ActivityStage.DURING;
+        activityUpdate.participants = IntStream.range(0, 30).mapToObj(participant -> "participant-" + participant).collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public DocumentEditDto readDocumentEditWithNewMapper() throws IOException {
+        return new ObjectMapper().readValue(documentEditBody, DocumentEditDto.class);
+    }
+
+    @Benchmark
+    public DocumentEditDto readDocumentEditWithSharedReader() throws IOException {
+        return brokerSerializer.readDocumentEdit(documentEditBody, BrokerSerializer.ContentTypes.JSON, null);
+    }
+
+    @Benchmark
+    public byte[] writeDocumentUpdateWithNewMapper() throws IOException {
+        return new ObjectMapper().writeValueAsBytes(documentUpdate);
+    }
+
+    @Benchmark
+    public byte[] writeDocumentUpdateWithSharedWriter() throws IOException {
+        return brokerSerializer.writeDocumentUpdate(documentUpdate).getBody();
+    }
+
+    @Benchmark
+    public byte[] writeActivityUpdateWithNewMapper() throws IOException {
+        return new ObjectMapper().writeValueAsBytes(activityUpdate);
+    }
+
+    @Benchmark
+    public byte[] writeActivityUpdateWithSharedWriter() throws IOException {
+        return brokerSerializer.writeActivityUpdate(activityUpdate).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BrokerSerializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
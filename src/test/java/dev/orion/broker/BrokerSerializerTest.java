@@ -0,0 +1,69 @@
+package dev.orion.broker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import dev.orion.broker.dto.DocumentEditDto;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+public class BrokerSerializerTest {
+    private final BrokerSerializer testThis = new BrokerSerializer();
+
+    @Test
+    @DisplayName("[readDocumentEdit] Should ignore media type parameters and letter case of the content type")
+    @SneakyThrows
+    public void testContentTypeWithParameters() {
+        val documentEdit = generateDocumentEdit();
+
+        val jsonEdit = testThis.readDocumentEdit(new ObjectMapper().writeValueAsBytes(documentEdit), "application/json; charset=utf-8", null);
+        val cborEdit = testThis.readDocumentEdit(new ObjectMapper(new CBORFactory()).writeValueAsBytes(documentEdit), "Application/CBOR ;foo=bar", null);
+
+        Assertions.assertEquals(documentEdit.documentContent, jsonEdit.documentContent);
+        Assertions.assertEquals(documentEdit.activityId, cborEdit.activityId);
+    }
+
+    @Test
+    @DisplayName("[readDocumentEdit] Should read messages with an unknown or missing content type as JSON")
+    @SneakyThrows
+    public void testUnknownContentType() {
+        val documentEdit = generateDocumentEdit();
+        val body = new ObjectMapper().writeValueAsBytes(documentEdit);
+
+        Assertions.assertEquals(documentEdit.messageKey, testThis.readDocumentEdit(body, "text/plain", null).messageKey);
+        Assertions.assertEquals(documentEdit.messageKey, testThis.readDocumentEdit(body, null, null).messageKey);
+    }
+
+    @Test
+    @DisplayName("[readDocumentEdit] Should decompress gzip encoded messages")
+    @SneakyThrows
+    public void testGzipEncoding() {
+        val documentEdit = generateDocumentEdit();
+        val compressedBody = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedBody)) {
+            gzipOutputStream.write(new ObjectMapper().writeValueAsBytes(documentEdit));
+        }
+
+        val readEdit = testThis.readDocumentEdit(compressedBody.toByteArray(), BrokerSerializer.ContentTypes.JSON, "gzip");
+
+        Assertions.assertEquals(documentEdit.documentContent, readEdit.documentContent);
+        Assertions.assertThrows(IOException.class, () -> testThis.readDocumentEdit(compressedBody.toByteArray(), BrokerSerializer.ContentTypes.JSON, "zstd"));
+    }
+
+    private static DocumentEditDto generateDocumentEdit() {
+        val documentEdit = new DocumentEditDto();
+        documentEdit.activityId = UUID.randomUUID();
+        documentEdit.externalUserId = UUID.randomUUID().toString();
+        documentEdit.documentId = UUID.randomUUID().toString();
+        documentEdit.documentContent = "Edited content";
+        documentEdit.messageKey = UUID.randomUUID();
+        return documentEdit;
+    }
+}
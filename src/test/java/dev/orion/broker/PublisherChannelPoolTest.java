@@ -0,0 +1,111 @@
+package dev.orion.broker;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+public class PublisherChannelPoolTest {
+    private static final String QUEUE_NAME = "publisher-test";
+    private static final byte[] BODY = new byte[]{1};
+
+    @Test
+    @DisplayName("[publish] Should refuse to publish past the in-flight limit until the broker confirms")
+    @SneakyThrows
+    public void testInFlightLimit() {
+        val channel = mockChannel();
+        val testThis = new PublisherChannelPool(new SimpleMeterRegistry(), () -> channel, 1, 2, 50L);
+
+        val firstConfirm = testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY);
+        val secondConfirm = testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY);
+
+        Assertions.assertEquals(2, testThis.getInFlightCount());
+        Assertions.assertThrows(IOException.class, () -> testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY));
+
+        val confirmListenerCaptor = ArgumentCaptor.forClass(ConfirmListener.class);
+        then(channel).should().addConfirmListener(confirmListenerCaptor.capture());
+        confirmListenerCaptor.getValue().handleAck(2L, true);
+
+        Assertions.assertTrue(firstConfirm.isDone() && !firstConfirm.isCompletedExceptionally());
+        Assertions.assertTrue(secondConfirm.isDone() && !secondConfirm.isCompletedExceptionally());
+        Assertions.assertEquals(0, testThis.getInFlightCount());
+        testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY);
+        then(channel).should(Mockito.times(3)).basicPublish(eq(""), eq(QUEUE_NAME), any(), eq(BODY));
+    }
+
+    @Test
+    @DisplayName("[publish] Should fail the publish and release its permit when the broker nacks it")
+    @SneakyThrows
+    public void testNack() {
+        val channel = mockChannel();
+        val testThis = new PublisherChannelPool(new SimpleMeterRegistry(), () -> channel, 1, 1, 50L);
+
+        val confirm = testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY);
+        val confirmListenerCaptor = ArgumentCaptor.forClass(ConfirmListener.class);
+        then(channel).should().addConfirmListener(confirmListenerCaptor.capture());
+        confirmListenerCaptor.getValue().handleNack(1L, false);
+
+        Assertions.assertTrue(confirm.isCompletedExceptionally());
+        Assertions.assertEquals(0, testThis.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("[publish] Should replace a channel closed by the broker with a new one")
+    @SneakyThrows
+    public void testClosedChannelReplacement() {
+        val closedChannel = mockChannel();
+        val replacementChannel = mockChannel();
+        val openedChannels = new ArrayDeque<>(List.of(closedChannel, replacementChannel));
+        val testThis = new PublisherChannelPool(new SimpleMeterRegistry(), openedChannels::poll, 1, 10, 50L);
+
+        testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY);
+        given(closedChannel.isOpen()).willReturn(false);
+        testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY);
+        testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY);
+
+        then(closedChannel).should(Mockito.times(1)).basicPublish(eq(""), eq(QUEUE_NAME), any(), eq(BODY));
+        then(replacementChannel).should(Mockito.times(2)).basicPublish(eq(""), eq(QUEUE_NAME), any(), eq(BODY));
+        then(replacementChannel).should().confirmSelect();
+        Assertions.assertTrue(openedChannels.isEmpty());
+    }
+
+    @Test
+    @DisplayName("[publish] Should release the permit when the channel refuses the publish")
+    @SneakyThrows
+    public void testPublishFailureReleasesPermit() {
+        val channel = mockChannel();
+        Mockito.doThrow(new IOException("Channel error")).when(channel).basicPublish(anyString(), anyString(), any(), any());
+        val testThis = new PublisherChannelPool(new SimpleMeterRegistry(), () -> channel, 1, 1, 50L);
+
+        Assertions.assertThrows(IOException.class, () -> testThis.publish(QUEUE_NAME, "key", new AMQP.BasicProperties(), BODY));
+
+        Assertions.assertEquals(0, testThis.getInFlightCount());
+        then(channel).should(never()).close();
+    }
+
+    @SneakyThrows
+    private static Channel mockChannel() {
+        val channel = Mockito.mock(Channel.class);
+        given(channel.isOpen()).willReturn(true);
+        given(channel.getNextPublishSeqNo()).willReturn(1L, 2L, 3L, 4L);
+        return channel;
+    }
+}
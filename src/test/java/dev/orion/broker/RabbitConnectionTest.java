@@ -0,0 +1,30 @@
+package dev.orion.broker;
+
+import com.rabbitmq.client.BuiltinExchangeType;
+import com.rabbitmq.client.Channel;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.Map;
+
+public class RabbitConnectionTest {
+    private final Channel channel = Mockito.mock(Channel.class);
+
+    @Test
+    @DisplayName("[declareQueueWithDeadLetter] Should declare the queue routing rejected messages to a bound dead-letter queue")
+    @SneakyThrows
+    public void testDeclareQueueWithDeadLetter() {
+        RabbitConnection.declareQueueWithDeadLetter(channel, "document-edit", "document-edit.dlx", "document-edit.dead-letter");
+
+        InOrder inOrder = Mockito.inOrder(channel);
+        inOrder.verify(channel).exchangeDeclare("document-edit.dlx", BuiltinExchangeType.DIRECT, true);
+        inOrder.verify(channel).queueDeclare("document-edit.dead-letter", true, false, false, null);
+        inOrder.verify(channel).queueBind("document-edit.dead-letter", "document-edit.dlx", "document-edit.dead-letter");
+        inOrder.verify(channel).queueDeclare("document-edit", false, false, false, Map.of(
+                "x-dead-letter-exchange", "document-edit.dlx",
+                "x-dead-letter-routing-key", "document-edit.dead-letter"));
+    }
+}
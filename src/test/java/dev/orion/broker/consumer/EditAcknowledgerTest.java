@@ -0,0 +1,79 @@
+package dev.orion.broker.consumer;
+
+import com.rabbitmq.client.Channel;
+import dev.orion.broker.dto.DocumentEditDto;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+public class EditAcknowledgerTest {
+    private final Channel channel = Mockito.mock(Channel.class);
+
+    @Test
+    @DisplayName("[acknowledge] Should ack the single delivery with manual acknowledgement")
+    @SneakyThrows
+    public void testAcknowledge() {
+        val testThis = new EditAcknowledger(channel, false, DocumentEditorConsumer.FailurePolicy.REQUEUE);
+        testThis.acknowledge(7L);
+
+        then(channel).should().basicAck(7L, false);
+    }
+
+    @Test
+    @DisplayName("[acknowledge] Should not settle anything with auto-ack")
+    @SneakyThrows
+    public void testAutoAck() {
+        val testThis = new EditAcknowledger(channel, true, DocumentEditorConsumer.FailurePolicy.REQUEUE);
+        testThis.acknowledge(7L);
+        testThis.reject(generateDelivery(8L, false));
+        testThis.discard(9L);
+
+        then(channel).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("[reject] Should requeue a first failure and dead-letter a redelivered one")
+    @SneakyThrows
+    public void testRequeueOnce() {
+        val testThis = new EditAcknowledger(channel, false, DocumentEditorConsumer.FailurePolicy.REQUEUE);
+        testThis.reject(generateDelivery(1L, false));
+        testThis.reject(generateDelivery(2L, true));
+
+        then(channel).should().basicNack(1L, false, true);
+        then(channel).should().basicNack(2L, false, false);
+    }
+
+    @Test
+    @DisplayName("[reject] Should never requeue with the dead-letter policy")
+    @SneakyThrows
+    public void testDeadLetterPolicy() {
+        val testThis = new EditAcknowledger(channel, false, DocumentEditorConsumer.FailurePolicy.DEAD_LETTER);
+        testThis.reject(generateDelivery(1L, false));
+
+        then(channel).should().basicNack(1L, false, false);
+        then(channel).should(never()).basicNack(anyLong(), anyBoolean(), Mockito.eq(true));
+    }
+
+    @Test
+    @DisplayName("[discard] Should reject unreadable messages without requeue")
+    @SneakyThrows
+    public void testDiscard() {
+        val testThis = new EditAcknowledger(channel, false, DocumentEditorConsumer.FailurePolicy.REQUEUE);
+        testThis.discard(3L);
+        testThis.requeue(4L);
+
+        then(channel).should().basicNack(3L, false, false);
+        then(channel).should().basicNack(4L, false, true);
+    }
+
+    private static DocumentEditDelivery generateDelivery(long deliveryTag, boolean redelivered) {
+        return new DocumentEditDelivery(new DocumentEditDto(), deliveryTag, redelivered);
+    }
+}
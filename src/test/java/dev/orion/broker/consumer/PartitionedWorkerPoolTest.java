@@ -0,0 +1,115 @@
+package dev.orion.broker.consumer;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class PartitionedWorkerPoolTest {
+
+    @Test
+    @DisplayName("[submit] Should handle items of the same key in submission order on a single worker")
+    public void testPerKeyOrdering() throws InterruptedException {
+        val keyCount = 6;
+        val itemsPerKey = 200;
+        val handledItems = new ConcurrentHashMap<Integer, List<Integer>>();
+        val handlingThreads = new ConcurrentHashMap<Integer, Set<String>>();
+        val allHandled = new CountDownLatch(keyCount * itemsPerKey);
+        val testThis = new PartitionedWorkerPool<int[]>("ordering-test", 3, 16, item -> {
+            handledItems.computeIfAbsent(item[0], ignored -> new CopyOnWriteArrayList<>()).add(item[1]);
+            handlingThreads.computeIfAbsent(item[0], ignored -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+            allHandled.countDown();
+        });
+
+        for (int i = 0; i < itemsPerKey; i++) {
+            for (int key = 0; key < keyCount; key++) {
+                testThis.submit(key, new int[]{key, i});
+            }
+        }
+
+        Assertions.assertTrue(allHandled.await(10, TimeUnit.SECONDS));
+        val expectedOrder = IntStream.range(0, itemsPerKey).boxed().collect(Collectors.toList());
+        IntStream.range(0, keyCount).forEach(key -> {
+            Assertions.assertEquals(expectedOrder, handledItems.get(key));
+            Assertions.assertEquals(1, handlingThreads.get(key).size());
+        });
+        testThis.shutdown();
+    }
+
+    @Test
+    @DisplayName("[submit] Should hand queued items over in batches of at most the batch size")
+    public void testBatchDraining() throws InterruptedException {
+        val batches = new CopyOnWriteArrayList<List<Integer>>();
+        val allHandled = new CountDownLatch(6);
+        val testThis = new PartitionedWorkerPool<Integer>("batch-test", 1, 16, 4, Duration.ofMillis(300), batch -> {
+            batches.add(new ArrayList<>(batch));
+            batch.forEach(ignored -> allHandled.countDown());
+        });
+
+        IntStream.range(0, 6).forEach(item -> submitQuietly(testThis, item));
+
+        Assertions.assertTrue(allHandled.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(List.of(0, 1, 2, 3), List.of(4, 5)), batches);
+        testThis.shutdown();
+    }
+
+    @Test
+    @DisplayName("[submit] Should keep the worker running after the handler fails")
+    public void testWorkerSurvivesHandlerFailure() throws InterruptedException {
+        val handledItems = new CopyOnWriteArrayList<Integer>();
+        val secondHandled = new CountDownLatch(1);
+        val testThis = new PartitionedWorkerPool<Integer>("failure-test", 1, 16, item -> {
+            if (item == 1) {
+                throw new IllegalStateException("Failing item");
+            }
+            handledItems.add(item);
+            secondHandled.countDown();
+        });
+
+        testThis.submit("key", 1);
+        testThis.submit("key", 2);
+
+        Assertions.assertTrue(secondHandled.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(2), handledItems);
+        testThis.shutdown();
+    }
+
+    @Test
+    @DisplayName("[partitionOf] Should always map a key to the same partition within the worker count")
+    public void testPartitionOf() {
+        val testThis = new PartitionedWorkerPool<Integer>("partition-test", 4, 1, item -> {});
+        IntStream.range(0, 100).forEach(key -> {
+            val partition = testThis.partitionOf("activity-" + key);
+            Assertions.assertTrue(partition >= 0 && partition < testThis.getWorkerCount());
+            Assertions.assertEquals(partition, testThis.partitionOf("activity-" + key));
+        });
+        testThis.shutdown();
+    }
+
+    @Test
+    @DisplayName("[constructor] Should refuse a pool without workers, queue or batch")
+    public void testInvalidConfiguration() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PartitionedWorkerPool<Integer>("invalid", 0, 1, item -> {}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PartitionedWorkerPool<Integer>("invalid", 1, 0, item -> {}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PartitionedWorkerPool<Integer>("invalid", 1, 1, 0, Duration.ZERO, items -> {}));
+    }
+
+    private static void submitQuietly(PartitionedWorkerPool<Integer> workerPool, Integer item) {
+        try {
+            workerPool.submit("key", item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package dev.orion.broker.producer;
+
+import dev.orion.broker.dto.ActivityUpdateDeltaMessageDto;
+import dev.orion.broker.dto.ActivityUpdateMessageDto;
+import dev.orion.commom.constant.ActivityStage;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+public class ActivityUpdateDeltaEncoderTest {
+    private final UUID activityUuid = UUID.randomUUID();
+
+    @Test
+    @DisplayName("[encode] Should send a snapshot, then deltas against the previous version, then a snapshot at the interval")
+    public void testRoundTrip() {
+        val testThis = new ActivityUpdateDeltaEncoder(10, Duration.ofMinutes(1), 3);
+        val updates = new ActivityUpdateMessageDto[]{
+                generateUpdate(Set.of("a"), true, ActivityStage.PRE),
+                generateUpdate(Set.of("a", "b"), true, ActivityStage.PRE),
+                generateUpdate(Set.of("b"), true, ActivityStage.DURING),
+                generateUpdate(Set.of("b", "c"), false, ActivityStage.DURING)
+        };
+
+        val snapshot = encodeAndCommit(testThis, updates[0]);
+        val firstDelta = encodeAndCommit(testThis, updates[1]);
+        val secondDelta = encodeAndCommit(testThis, updates[2]);
+        val intervalSnapshot = encodeAndCommit(testThis, updates[3]);
+
+        Assertions.assertTrue(snapshot.snapshot);
+        Assertions.assertNull(snapshot.baseVersion);
+        Assertions.assertFalse(firstDelta.snapshot);
+        Assertions.assertEquals(snapshot.version, firstDelta.baseVersion);
+        Assertions.assertFalse(secondDelta.snapshot);
+        Assertions.assertEquals(firstDelta.version, secondDelta.baseVersion);
+        Assertions.assertTrue(intervalSnapshot.snapshot);
+        Assertions.assertEquals(Set.of("b", "c"), intervalSnapshot.participants);
+
+        val consumerState = new ConsumerState();
+        consumerState.apply(snapshot);
+        Assertions.assertEquals(updates[0].participants, consumerState.participants);
+        consumerState.apply(firstDelta);
+        Assertions.assertEquals(updates[1].participants, consumerState.participants);
+        consumerState.apply(secondDelta);
+        Assertions.assertEquals(updates[2].participants, consumerState.participants);
+        Assertions.assertEquals(ActivityStage.DURING, consumerState.activityStage);
+        consumerState.apply(intervalSnapshot);
+        Assertions.assertEquals(updates[3].participants, consumerState.participants);
+        Assertions.assertFalse(consumerState.isActive);
+    }
+
+    @Test
+    @DisplayName("[encode] Should keep the previous base when an encoding is never committed")
+    public void testUncommittedEncoding() {
+        val testThis = new ActivityUpdateDeltaEncoder(10, Duration.ofMinutes(1), 50);
+        val snapshot = encodeAndCommit(testThis, generateUpdate(Set.of("a"), true, ActivityStage.PRE));
+
+        val lostDelta = testThis.encode(generateUpdate(Set.of("a", "b"), true, ActivityStage.PRE)).getDelta();
+        val nextDelta = encodeAndCommit(testThis, generateUpdate(Set.of("a", "b", "c"), true, ActivityStage.PRE));
+
+        Assertions.assertEquals(snapshot.version, lostDelta.baseVersion);
+        Assertions.assertEquals(snapshot.version, nextDelta.baseVersion);
+        Assertions.assertEquals(Set.of("b", "c"), nextDelta.addedParticipants);
+    }
+
+    @Test
+    @DisplayName("[commit] Should force a snapshot when two encodings were built on the same base")
+    public void testConflictingEncodings() {
+        val testThis = new ActivityUpdateDeltaEncoder(10, Duration.ofMinutes(1), 50);
+        encodeAndCommit(testThis, generateUpdate(Set.of("a"), true, ActivityStage.PRE));
+
+        val firstEncoding = testThis.encode(generateUpdate(Set.of("a", "b"), true, ActivityStage.PRE));
+        val secondEncoding = testThis.encode(generateUpdate(Set.of("a", "c"), true, ActivityStage.PRE));
+        firstEncoding.commit();
+        secondEncoding.commit();
+
+        Assertions.assertTrue(encodeAndCommit(testThis, generateUpdate(Set.of("a"), true, ActivityStage.PRE)).snapshot);
+    }
+
+    @Test
+    @DisplayName("[invalidate] Should send a snapshot after a sent message was lost")
+    public void testInvalidate() {
+        val testThis = new ActivityUpdateDeltaEncoder(10, Duration.ofMinutes(1), 50);
+        val snapshot = encodeAndCommit(testThis, generateUpdate(Set.of("a"), true, ActivityStage.PRE));
+
+        testThis.invalidate(activityUuid);
+        val nextUpdate = encodeAndCommit(testThis, generateUpdate(Set.of("a"), true, ActivityStage.PRE));
+
+        Assertions.assertTrue(nextUpdate.snapshot);
+        Assertions.assertTrue(nextUpdate.version > snapshot.version);
+    }
+
+    private static ActivityUpdateDeltaMessageDto encodeAndCommit(ActivityUpdateDeltaEncoder encoder, ActivityUpdateMessageDto activityUpdate) {
+        val encoding = encoder.encode(activityUpdate);
+        encoding.commit();
+        return encoding.getDelta();
+    }
+
+    private ActivityUpdateMessageDto generateUpdate(Set<String> participants, Boolean isActive, ActivityStage activityStage) {
+        val activityUpdate = new ActivityUpdateMessageDto();
+        activityUpdate.uuid = activityUuid;
+        activityUpdate.participants = new HashSet<>(participants);
+        activityUpdate.isActive = isActive;
+        activityUpdate.activityStage = activityStage;
+        return activityUpdate;
+    }
+
+    //    Applies messages the way a consumer does, refusing deltas whose base is not the last applied version
+    private static class ConsumerState {
+        private Long version;
+        private Set<String> participants = new HashSet<>();
+        private Boolean isActive;
+        private ActivityStage activityStage;
+
+        private void apply(ActivityUpdateDeltaMessageDto message) {
+            if (message.snapshot) {
+                participants = new HashSet<>(message.participants);
+            } else {
+                Assertions.assertEquals(version, message.baseVersion);
+                if (Objects.nonNull(message.addedParticipants)) {
+                    participants.addAll(message.addedParticipants);
+                }
+                if (Objects.nonNull(message.removedParticipants)) {
+                    participants.removeAll(message.removedParticipants);
+                }
+            }
+
+            isActive = Objects.isNull(message.isActive) ? isActive : message.isActive;
+            activityStage = Objects.isNull(message.activityStage) ? activityStage : message.activityStage;
+            version = message.version;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dev.orion.broker.producer;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class UpdateCoalescerTest {
+
+    @Test
+    @DisplayName("[offer] Should flush a single merged update for every key offered within the window")
+    public void testMergesUpdatesOfSameKey() throws InterruptedException {
+        val flushedUpdates = new CopyOnWriteArrayList<String>();
+        val allFlushed = new CountDownLatch(2);
+        val testThis = new UpdateCoalescer<String, String>("coalescer-test", Duration.ofMillis(200), (previous, latest) -> previous + latest, update -> {
+            flushedUpdates.add(update);
+            allFlushed.countDown();
+        });
+
+        testThis.offer("first", "a");
+        testThis.offer("second", "x");
+        testThis.offer("first", "b");
+        testThis.offer("first", "c");
+        Assertions.assertEquals(2, testThis.getPendingCount());
+
+        Assertions.assertTrue(allFlushed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, flushedUpdates.size());
+        Assertions.assertTrue(flushedUpdates.containsAll(List.of("abc", "x")));
+        Assertions.assertEquals(0, testThis.getPendingCount());
+        testThis.shutdown();
+    }
+
+    @Test
+    @DisplayName("[offer] Should open a new window for a key offered after its previous flush")
+    public void testNewWindowAfterFlush() throws InterruptedException {
+        val flushedUpdates = new CopyOnWriteArrayList<String>();
+        val firstFlushed = new CountDownLatch(1);
+        val secondFlushed = new CountDownLatch(2);
+        val testThis = new UpdateCoalescer<String, String>("coalescer-test", Duration.ofMillis(20), (previous, latest) -> previous + latest, update -> {
+            flushedUpdates.add(update);
+            firstFlushed.countDown();
+            secondFlushed.countDown();
+        });
+
+        testThis.offer("key", "a");
+        Assertions.assertTrue(firstFlushed.await(5, TimeUnit.SECONDS));
+        testThis.offer("key", "b");
+
+        Assertions.assertTrue(secondFlushed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("a", "b"), flushedUpdates);
+        testThis.shutdown();
+    }
+
+    @Test
+    @DisplayName("[offer] Should keep flushing after the flusher fails")
+    public void testFlusherFailure() throws InterruptedException {
+        val flushedUpdates = new CopyOnWriteArrayList<String>();
+        val secondFlushed = new CountDownLatch(1);
+        val testThis = new UpdateCoalescer<String, String>("coalescer-test", Duration.ofMillis(20), (previous, latest) -> latest, update -> {
+            if ("failing".equals(update)) {
+                throw new IllegalStateException("Broker is out");
+            }
+            flushedUpdates.add(update);
+            secondFlushed.countDown();
+        });
+
+        testThis.offer("first", "failing");
+        testThis.offer("second", "working");
+
+        Assertions.assertTrue(secondFlushed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("working"), flushedUpdates);
+        testThis.shutdown();
+    }
+
+    @Test
+    @DisplayName("[shutdown] Should flush pending updates without waiting for the window")
+    public void testShutdownFlushesPending() {
+        val flushedUpdates = new CopyOnWriteArrayList<String>();
+        val testThis = new UpdateCoalescer<String, String>("coalescer-test", Duration.ofMinutes(1), (previous, latest) -> previous + latest, flushedUpdates::add);
+
+        testThis.offer("key", "a");
+        testThis.offer("key", "b");
+        testThis.shutdown();
+
+        Assertions.assertEquals(List.of("ab"), flushedUpdates);
+        Assertions.assertEquals(0, testThis.getPendingCount());
+    }
+}
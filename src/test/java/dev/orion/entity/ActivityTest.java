@@ -2,14 +2,21 @@ package dev.orion.entity;
 
 import dev.orion.commom.constant.CircularStepFlowDirectionTypes;
 import dev.orion.commom.constant.UserStatus;
+import dev.orion.fixture.ActivityFixture;
 import dev.orion.fixture.UserFixture;
 import io.quarkus.test.junit.QuarkusTest;
+import lombok.val;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import javax.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -39,6 +46,118 @@ public class ActivityTest {
     }
 
 
+    @Test
+    @DisplayName("[fetchExecutionContext] - Statement count does not grow with the number of participants")
+    public void testFetchExecutionContextStatementCount() {
+        val statementsWithFewParticipants = countExecutionContextStatements(2);
+        val statementsWithManyParticipants = countExecutionContextStatements(200);
+
+        Assertions.assertEquals(statementsWithFewParticipants, statementsWithManyParticipants);
+    }
+
+    @Test
+    @DisplayName("[fetchExecutionContext] - One edit loads its context in a single row and one select per participant set")
+    public void testFetchExecutionContextRowCount() {
+        val participantCount = 30;
+        val users = populateDbWithUsers(participantCount);
+        val activity = ActivityFixture.generateActivity(users.get(0));
+        activity.uuid = null;
+        users.forEach(activity::addParticipant);
+        activity.persist();
+        val document = createDocument(activity, users.get(0));
+        users.forEach(user -> {
+            document.addParticipant(user);
+            document.addParticipantThatEdited(user);
+        });
+
+        val entityManager = Activity.getEntityManager();
+        entityManager.flush();
+        entityManager.clear();
+        val statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        val executionContext = Activity.fetchExecutionContext(activity.uuid, document.getExternalId(), users.get(1).externalId).orElseThrow();
+        val executionContextQuery = Arrays.stream(statistics.getQueries())
+                .filter(query -> query.contains("from Document d"))
+                .findFirst()
+                .orElseThrow();
+
+        Assertions.assertEquals(participantCount, executionContext.getDocument().getParticipantsAssigned().size());
+        Assertions.assertEquals(participantCount, executionContext.getDocument().getParticipantsThatEdited().size());
+        Assertions.assertEquals(1, statistics.getQueryStatistics(executionContextQuery).getExecutionRowCount());
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(activity.uuid, executionContext.getActivity().uuid);
+        Assertions.assertTrue(executionContext.isParticipantInActivity());
+    }
+
+    @Test
+    @DisplayName("[fetchExecutionContext] - Participant outside the activity is flagged and missing entities give empty")
+    public void testFetchExecutionContextMembership() {
+        val users = populateDbWithUsers(3);
+        val activity = ActivityFixture.generateActivity(users.get(0));
+        activity.uuid = null;
+        activity.addParticipant(users.get(1));
+        activity.persist();
+        val document = createDocument(activity, users.get(1));
+        val outsider = users.get(2);
+
+        val memberContext = Activity.fetchExecutionContext(activity.uuid, document.getExternalId(), users.get(1).externalId).orElseThrow();
+        val outsiderContext = Activity.fetchExecutionContext(activity.uuid, document.getExternalId(), outsider.externalId).orElseThrow();
+
+        Assertions.assertTrue(memberContext.isParticipantInActivity());
+        Assertions.assertFalse(outsiderContext.isParticipantInActivity());
+        Assertions.assertTrue(Activity.fetchExecutionContext(activity.uuid, UUID.randomUUID().toString(), outsider.externalId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("[touch] - In-memory version follows the row even when the loaded activity is stale")
+    public void testTouchReadsVersionBack() {
+        val users = populateDbWithUsers(1);
+        val activity = ActivityFixture.generateActivity(users.get(0));
+        activity.uuid = null;
+        activity.persist();
+
+//        Another writer moved the row after this activity was loaded
+        Activity.update("version = 5 where uuid = ?1", activity.uuid);
+        activity.touch();
+        activity.touch();
+
+        Assertions.assertEquals(6L, activity.getVersion());
+        Assertions.assertEquals(6L, Activity.findVersion(activity.uuid).orElseThrow());
+    }
+
+    private long countExecutionContextStatements(int participantCount) {
+        val users = populateDbWithUsers(participantCount);
+        val activity = ActivityFixture.generateActivity(users.get(0));
+        activity.uuid = null;
+        users.forEach(activity::addParticipant);
+        activity.persist();
+        val document = createDocument(activity, users.get(0));
+
+        val entityManager = Activity.getEntityManager();
+        entityManager.flush();
+        entityManager.clear();
+        val statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        val executionContext = Activity.fetchExecutionContext(activity.uuid, document.getExternalId(), users.get(participantCount - 1).externalId);
+        Assertions.assertTrue(executionContext.orElseThrow().isParticipantInActivity());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Document createDocument(Activity activity, User editor) {
+        val groupActivity = new GroupActivity();
+        groupActivity.setActivityOwner(activity);
+        groupActivity.persist();
+
+        val document = new Document();
+        document.setExternalId(UUID.randomUUID().toString());
+        document.setGroupActivity(groupActivity);
+        document.addParticipant(editor);
+        document.persist();
+        return document;
+    }
+
     private List<User> populateDbWithUsers(Integer quantity) {
         Integer counter = quantity;
         List<User> userList = new ArrayList<>();
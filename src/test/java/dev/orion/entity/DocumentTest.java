@@ -5,6 +5,7 @@ import dev.orion.fixture.UserFixture;
 import io.quarkus.test.junit.QuarkusTest;
 import lombok.val;
 import net.datafaker.Faker;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import javax.transaction.Transactional;
 import java.util.LinkedHashSet;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 @QuarkusTest
 @Transactional
@@ -58,6 +60,78 @@ public class DocumentTest {
         Assertions.assertTrue(optionalDocument.isEmpty());
     }
 
+    @Test
+    @DisplayName("[remainingWriters] - Counter follows participants through a round")
+    public void testRemainingWritersCounter() {
+        createDocument();
+        Assertions.assertEquals(2, originalDocument.getRemainingWriters());
+
+        val writer = originalDocument.getParticipantsAssigned().iterator().next();
+        Assertions.assertTrue(originalDocument.markAsEdited(writer));
+        Assertions.assertFalse(originalDocument.markAsEdited(writer));
+        Assertions.assertEquals(1, originalDocument.getRemainingWriters());
+        Assertions.assertFalse(originalDocument.isRoundFinished());
+
+        originalDocument.markAsEdited(originalDocument.getParticipantsAssigned().iterator().next());
+        Assertions.assertTrue(originalDocument.isRoundFinished());
+
+        originalDocument.startNextRound();
+        Assertions.assertEquals(2, originalDocument.getRemainingWriters());
+        Assertions.assertTrue(originalDocument.getParticipantsThatEdited().isEmpty());
+    }
+
+    @Test
+    @DisplayName("[startNextRound] - Round transition of 100 writers takes the same few batched statements as one of 10")
+    public void testStartNextRoundStatementCount() {
+        val statementsWithFewWriters = countRoundTransitionStatements(10);
+        val statementsWithManyWriters = countRoundTransitionStatements(100);
+
+        Assertions.assertEquals(statementsWithFewWriters, statementsWithManyWriters);
+//        Document update, one delete of the edited set and the batched inserts of the assigned set
+        Assertions.assertTrue(statementsWithManyWriters <= 3, String.valueOf(statementsWithManyWriters));
+    }
+
+    @Test
+    @DisplayName("[countUnfinishedByActivity] - Count documents that still have writers or rounds left")
+    public void testCountUnfinishedByActivity() {
+        createDocument();
+        val activityUuid = originalDocument.getGroupActivity().getActivityOwner().uuid;
+
+        Assertions.assertEquals(1, Document.countByActivity(activityUuid));
+        Assertions.assertEquals(1, Document.countUnfinishedByActivity(activityUuid, 1));
+
+        new LinkedHashSet<>(originalDocument.getParticipantsAssigned()).forEach(originalDocument::markAsEdited);
+        originalDocument.setRounds(1);
+        originalDocument.persistAndFlush();
+        Assertions.assertEquals(0, Document.countUnfinishedByActivity(activityUuid, 1));
+        Assertions.assertEquals(1, Document.countUnfinishedByActivity(activityUuid, 2));
+        Assertions.assertEquals(0, Document.countByActivity(UUID.randomUUID()));
+    }
+
+
+    private long countRoundTransitionStatements(int writerCount) {
+        val document = new Document();
+        document.setExternalId(UUID.randomUUID().toString());
+        IntStream.range(0, writerCount).forEach(i -> {
+            val writer = UserFixture.generateUser();
+            writer.persist();
+            document.addParticipant(writer);
+        });
+        document.persist();
+        new LinkedHashSet<>(document.getParticipantsAssigned()).forEach(document::markAsEdited);
+
+        val entityManager = Document.getEntityManager();
+        entityManager.flush();
+        val statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        document.startNextRound();
+        entityManager.flush();
+
+        Assertions.assertEquals(writerCount, document.getRemainingWriters());
+        Assertions.assertEquals(writerCount, Document.<Document>findById(document.id).getParticipantsAssigned().size());
+        return statistics.getPrepareStatementCount();
+    }
 
     private void createDocument() {
         val user = UserFixture.generateUser();
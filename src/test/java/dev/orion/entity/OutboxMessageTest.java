@@ -0,0 +1,73 @@
+package dev.orion.entity;
+
+import io.quarkus.test.junit.QuarkusTest;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@QuarkusTest
+@Transactional
+public class OutboxMessageTest {
+    @BeforeEach
+    public void cleanOutbox() {
+        OutboxMessage.deleteAll();
+    }
+
+    @Test
+    @DisplayName("[findNextBatch] - Messages with the same ordering key come back in insertion order")
+    public void testFindNextBatchKeepsOrder() {
+        val orderingKey = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            new OutboxMessage("activity-update", orderingKey, 4, "application/json", null, String.valueOf(i).getBytes(StandardCharsets.UTF_8)).persist();
+        }
+
+        val relayPartition = Math.floorMod(Math.floorMod(orderingKey.hashCode(), OutboxMessage.PARTITIONS), 4);
+        val outboxMessages = OutboxMessage.findNextBatch(relayPartition, 10);
+        val payloads = outboxMessages
+                .stream()
+                .map(outboxMessage -> new String(outboxMessage.getPayload(), StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+
+        Assertions.assertEquals(List.of("0", "1", "2", "3", "4"), payloads);
+    }
+
+    @Test
+    @DisplayName("[findNextBatch] - Workers only get the partitions they own, limited by the batch size")
+    public void testFindNextBatchByPartition() {
+        for (int i = 0; i < 20; i++) {
+            new OutboxMessage("document-update", UUID.randomUUID(), 2, "application/json", null, new byte[]{1}).persist();
+        }
+
+        val firstWorker = OutboxMessage.findNextBatch(0, 100);
+        val secondWorker = OutboxMessage.findNextBatch(1, 100);
+
+        Assertions.assertEquals(20, firstWorker.size() + secondWorker.size());
+        firstWorker.forEach(outboxMessage -> Assertions.assertEquals(0, outboxMessage.getPartitionKey() % 2));
+        secondWorker.forEach(outboxMessage -> Assertions.assertEquals(1, outboxMessage.getPartitionKey() % 2));
+        Assertions.assertTrue(OutboxMessage.findNextBatch(0, 3).size() <= 3);
+    }
+
+    @Test
+    @DisplayName("[reassignRelayPartitions] - Messages written with another parallelism move to the worker owning them now")
+    public void testReassignRelayPartitions() {
+        for (int i = 0; i < 20; i++) {
+            new OutboxMessage("document-update", UUID.randomUUID(), 4, "application/json", null, new byte[]{1}).persist();
+        }
+
+        OutboxMessage.reassignRelayPartitions(2);
+        OutboxMessage.getEntityManager().clear();
+
+        val outboxMessages = OutboxMessage.<OutboxMessage>listAll();
+        Assertions.assertEquals(20, outboxMessages.size());
+        outboxMessages.forEach(outboxMessage -> Assertions.assertEquals(outboxMessage.getPartitionKey() % 2, outboxMessage.getRelayPartition()));
+        Assertions.assertTrue(OutboxMessage.findNextBatch(2, 100).isEmpty());
+    }
+}
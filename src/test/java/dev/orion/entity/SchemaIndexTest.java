@@ -0,0 +1,62 @@
+package dev.orion.entity;
+
+import io.quarkus.test.junit.QuarkusTest;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.Transactional;
+
+@QuarkusTest
+@Transactional
+public class SchemaIndexTest {
+    private static final String GROUP_UUID = "X'B0000000000000000000000000000001'";
+    private static final String ACTIVITY_UUID = "X'A0000000000000000000000000000001'";
+
+    @Test
+    @DisplayName("[Document] - Documents of a group and the unfinished document count use the group index")
+    public void testDocumentGroupLookupUsesIndex() {
+        assertPlanUsesIndex("SELECT id FROM Document WHERE groupActivity_id = " + GROUP_UUID, "IDX_DOCUMENT_GROUP_ACTIVITY");
+        assertPlanUsesIndex("SELECT COUNT(*) FROM Document WHERE groupActivity_id = " + GROUP_UUID + " AND (remainingWriters > 0 OR rounds < 2)", "IDX_DOCUMENT_GROUP_ACTIVITY");
+    }
+
+    @Test
+    @DisplayName("[Document] - Documents of a participant are found through the join table participant indexes")
+    public void testDocumentParticipantLookupUsesIndex() {
+        assertPlanUsesIndex("SELECT document_id FROM ASSIGNED_PARTICIPANTS WHERE participant_id = 1", "IDX_ASSIGNED_PARTICIPANTS_PARTICIPANT");
+        assertPlanUsesIndex("SELECT document_id FROM DOCUMENT_EDITORS WHERE participant_id = 1", "IDX_DOCUMENT_EDITORS_PARTICIPANT");
+    }
+
+    @Test
+    @DisplayName("[User] - Participants of an activity and of a group use their indexes")
+    public void testUserMembershipLookupUsesIndex() {
+        assertPlanUsesIndex("SELECT id FROM User WHERE activity_uuid = " + ACTIVITY_UUID, "IDX_USER_ACTIVITY");
+        assertPlanUsesIndex("SELECT id FROM User WHERE groupActivity_uuid = " + GROUP_UUID, "IDX_USER_GROUP_ACTIVITY");
+    }
+
+    @Test
+    @DisplayName("[GroupActivity] - Groups of an activity use the owner index")
+    public void testGroupActivityOwnerLookupUsesIndex() {
+        assertPlanUsesIndex("SELECT uuid FROM GroupActivity WHERE activityOwner_uuid = " + ACTIVITY_UUID, "IDX_GROUP_ACTIVITY_OWNER");
+    }
+
+    @Test
+    @DisplayName("[Workflow] - Workflow lookup by name uses the name index")
+    public void testWorkflowNameLookupUsesIndex() {
+        assertPlanUsesIndex("SELECT id FROM Workflow WHERE name = 'generic'", "IDX_WORKFLOW_NAME");
+    }
+
+    @Test
+    @DisplayName("[OutboxMessage] - Next batch of a relay worker uses the relay partition index")
+    public void testOutboxBatchLookupUsesIndex() {
+        assertPlanUsesIndex("SELECT id FROM OutboxMessage WHERE relayPartition = 1 ORDER BY id", "IDX_OUTBOX_MESSAGE_RELAY_PARTITION");
+    }
+
+    private void assertPlanUsesIndex(String query, String indexName) {
+        val plan = String.valueOf(Activity.getEntityManager().createNativeQuery("EXPLAIN " + query).getSingleResult());
+
+        Assertions.assertTrue(plan.toUpperCase().contains(indexName), plan);
+        Assertions.assertFalse(plan.contains("tableScan"), plan);
+    }
+}
@@ -0,0 +1,88 @@
+package dev.orion.entity;
+
+import lombok.SneakyThrows;
+import lombok.val;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.UUID;
+
+public class SchemaMigrationTest {
+    private static final String ACTIVITY_UUID = "X'A0000000000000000000000000000001'";
+    private static final String GROUP_UUID = "X'B0000000000000000000000000000001'";
+
+    @Test
+    @DisplayName("[migrate] - Should bring rows of the initial schema to the latest one, backfilling the added columns")
+    public void testMigrationFromInitialSchema() {
+        val url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+        migrate(url, "1");
+        execute(url,
+                "INSERT INTO Workflow (id, name) VALUES (1, 'generic')",
+                "INSERT INTO User (id, externalId, user_status) VALUES (1, 'creator', 'CONNECTED')",
+                "INSERT INTO User (id, externalId, user_status) VALUES (2, 'first-writer', 'CONNECTED')",
+                "INSERT INTO User (id, externalId, user_status) VALUES (3, 'second-writer', 'CONNECTED')",
+                "INSERT INTO Activity (uuid, actualStage, isActive, creator_id, workflow_id) VALUES (" + ACTIVITY_UUID + ", 1, 1, 1, 1)",
+                "INSERT INTO GroupActivity (uuid, capacity, activityOwner_uuid) VALUES (" + GROUP_UUID + ", 2, " + ACTIVITY_UUID + ")",
+                "INSERT INTO Document (id, externalId, rounds, groupActivity_id) VALUES (1, 'assigned-document', 1, " + GROUP_UUID + ")",
+                "INSERT INTO Document (id, externalId, rounds, groupActivity_id) VALUES (2, 'empty-document', 1, " + GROUP_UUID + ")",
+                "INSERT INTO ASSIGNED_PARTICIPANTS (document_id, participant_id) VALUES (1, 2)",
+                "INSERT INTO ASSIGNED_PARTICIPANTS (document_id, participant_id) VALUES (1, 3)",
+                "INSERT INTO Stage (id, activityStage) VALUES (20, 'DURING')",
+                "INSERT INTO SendEmailStep (id, type, onlyForCreator) VALUES (10, 'SEND_EMAIL', 1)",
+                "INSERT INTO Stage_Step (Stage_id, steps_id, steps_ORDER) VALUES (20, 10, 0)",
+                "INSERT INTO ACTIVITY_STAGE_EMAIL_MESSAGE (SendEmailStep_id, activityStageMessageMap, activityStageMessageMap_KEY) VALUES (10, 'Activity is running', 1)");
+
+        migrate(url, "latest");
+
+        Assertions.assertEquals(0L, queryNumber(url, "SELECT version FROM Activity WHERE uuid = " + ACTIVITY_UUID));
+        Assertions.assertEquals(2L, queryNumber(url, "SELECT remainingWriters FROM Document WHERE id = 1"));
+        Assertions.assertEquals(0L, queryNumber(url, "SELECT remainingWriters FROM Document WHERE id = 2"));
+        Assertions.assertEquals(0L, queryNumber(url, "SELECT SUM(turnPosition) FROM Document"));
+        Assertions.assertEquals(0L, queryNumber(url, "SELECT SUM(participantsVersion) FROM Document"));
+        Assertions.assertEquals("SEND_EMAIL", queryValue(url, "SELECT STEP_TYPE FROM Step WHERE id = 10"));
+        Assertions.assertEquals("Activity is running", queryValue(url, "SELECT activityStageMessageMap FROM ACTIVITY_STAGE_EMAIL_MESSAGE WHERE SendEmailStep_id = 10"));
+
+        execute(url, "INSERT INTO OutboxMessage (id, contentType, partitionKey, payload, queueName, relayPartition) VALUES (1, 'application/json', 7, X'7B7D', 'activity', 3)");
+        val plan = String.valueOf(queryValue(url, "EXPLAIN SELECT id FROM OutboxMessage WHERE relayPartition = 3 ORDER BY id"));
+        Assertions.assertTrue(plan.toUpperCase().contains("IDX_OUTBOX_MESSAGE_RELAY_PARTITION"), plan);
+    }
+
+    private static void migrate(String url, String target) {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    @SneakyThrows
+    private static void execute(String url, String... statements) {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static long queryNumber(String url, String query) {
+        return ((Number) queryValue(url, query)).longValue();
+    }
+
+    @SneakyThrows
+    private static Object queryValue(String url, String query) {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            Assertions.assertTrue(resultSet.next(), query);
+            return resultSet.getObject(1);
+        }
+    }
+}
@@ -1,13 +1,28 @@
 package dev.orion.entity;
 
 import dev.orion.commom.constant.ActivityStage;
+import dev.orion.entity.step_type.OrderedCircleOfWriter;
 import dev.orion.entity.step_type.SendEmailStep;
+import dev.orion.entity.step_type.UnorderedCircleOfWriters;
+import dev.orion.fixture.ActivityFixture;
+import dev.orion.fixture.UserFixture;
+import dev.orion.fixture.WorkflowFixture;
+import dev.orion.workflowExecutor.WorkflowPlan;
 import io.quarkus.test.junit.QuarkusTest;
+import lombok.val;
 import net.datafaker.Faker;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import javax.transaction.Transactional;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @QuarkusTest
 @Transactional
@@ -31,6 +46,79 @@ public class WorkflowTest {
         Assertions.assertEquals(testingThis.getStages().stream().filter(stage1 -> stage1.getActivityStage() == ActivityStage.POS).findFirst().orElseThrow().getSteps().size(), EXPECTED_STEPS_QTD);
     }
 
+    @Test
+    @DisplayName("[getSteps] - Steps of every type are read from the single step table in one statement")
+    public void testStageStepsLoadFromSingleTable() {
+        val stage = WorkflowFixture.generateStage(ActivityStage.DURING, List.of(new SendEmailStep(), new UnorderedCircleOfWriters(), new OrderedCircleOfWriter()));
+        generateWorkflow(stage);
+        val entityManager = Workflow.getEntityManager();
+        entityManager.flush();
+        entityManager.clear();
+        val sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        val statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        Stage loadedStage = Stage.findById(stage.id);
+        val stepTypes = loadedStage.getSteps().stream().map(Step::getStepType).collect(Collectors.toList());
+
+        Assertions.assertEquals(List.of("SEND_EMAIL", "UNORDERED_CIRCLE_OF_WRITES", "ORDERED_CIRCLE_OF_WRITERS"), stepTypes);
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertInstanceOf(SingleTableEntityPersister.class, sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersister(Step.class));
+    }
+
+    @Test
+    @DisplayName("[fetchExecutionContext] - Warm edit reads the workflow, stages and steps from the second-level cache")
+    public void testWarmEditDoesNotQueryWorkflowTables() {
+        val creator = UserFixture.generateUser();
+        creator.persist();
+        val activity = ActivityFixture.generateActivity(creator);
+        activity.uuid = null;
+        activity.addParticipant(creator);
+        activity.persist();
+        val sendEmailStep = (SendEmailStep) activity.workflow.getStages().iterator().next().getSteps().get(0);
+        sendEmailStep.addMessage(ActivityStage.DURING, "Activity is running");
+        val document = createDocument(activity, creator);
+        val statistics = Workflow.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        loadWorkflowForEdit(activity.uuid, document.getExternalId(), creator.externalId);
+        statistics.clear();
+        loadWorkflowForEdit(activity.uuid, document.getExternalId(), creator.externalId);
+
+        List.of(Workflow.class, Stage.class, SendEmailStep.class).forEach(entityClass -> {
+            val entityStatistics = statistics.getEntityStatistics(entityClass.getName());
+            Assertions.assertEquals(0, entityStatistics.getLoadCount() + entityStatistics.getFetchCount(), entityClass.getSimpleName());
+        });
+        List.of(Workflow.class.getName() + ".stages",
+                Stage.class.getName() + ".steps",
+                Step.class.getName() + ".allowedStages",
+                SendEmailStep.class.getName() + ".activityStageMessageMap").forEach(role ->
+                Assertions.assertEquals(0, statistics.getCollectionStatistics(role).getFetchCount(), role));
+        Assertions.assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    private void loadWorkflowForEdit(UUID activityUuid, String documentExternalId, String userExternalId) {
+        val entityManager = Workflow.getEntityManager();
+        entityManager.flush();
+        entityManager.clear();
+
+        val executionContext = Activity.fetchExecutionContext(activityUuid, documentExternalId, userExternalId).orElseThrow();
+        WorkflowPlan.compile(executionContext.getActivity().workflow, Map.of());
+    }
+
+    private Document createDocument(Activity activity, User editor) {
+        val groupActivity = new GroupActivity();
+        groupActivity.setActivityOwner(activity);
+        groupActivity.persist();
+
+        val document = new Document();
+        document.setExternalId(UUID.randomUUID().toString());
+        document.setGroupActivity(groupActivity);
+        document.addParticipant(editor);
+        document.persist();
+        return document;
+    }
+
     private void generateWorkflow(Stage stage) {
         testingThis = new Workflow();
         testingThis.addStepStage(stage);
@@ -0,0 +1,202 @@
+package dev.orion.services;
+
+import dev.orion.broker.dto.ActivityUpdateMessageDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@QuarkusTest
+public class ActivityEventHubTest {
+    @Inject
+    ActivityEventHub testThis;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("[publish] - Should drop the oldest buffered updates of a subscriber that falls behind")
+    public void testPublishDropsOldestWhenSubscriberFallsBehind() throws InterruptedException {
+        val activityUuid = UUID.randomUUID();
+        val received = new CopyOnWriteArrayList<String>();
+        val firstUpdateStarted = new CountDownLatch(1);
+        val releaseSubscriber = new CountDownLatch(1);
+        val allDelivered = new CountDownLatch(4);
+        val droppedBefore = meterRegistry.counter("orion.activities.events.dropped").count();
+
+        val subscription = testThis.subscribe(activityUuid, 3, activityUpdate -> {
+            firstUpdateStarted.countDown();
+            awaitQuietly(releaseSubscriber);
+            received.add(activityUpdate.participants.iterator().next());
+            allDelivered.countDown();
+        });
+
+        testThis.publish(generateUpdate(activityUuid, "1"));
+        Assertions.assertTrue(firstUpdateStarted.await(5, TimeUnit.SECONDS));
+        IntStream.rangeClosed(2, 10).forEach(i -> testThis.publish(generateUpdate(activityUuid, String.valueOf(i))));
+        releaseSubscriber.countDown();
+
+        Assertions.assertTrue(allDelivered.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("1", "8", "9", "10"), received);
+        Assertions.assertEquals(droppedBefore + 6, meterRegistry.counter("orion.activities.events.dropped").count());
+        subscription.close();
+    }
+
+    @Test
+    @DisplayName("[publish] - Should deliver updates only to the subscribers of the updated activity")
+    public void testPublishReachesOnlySubscribersOfTheActivity() throws InterruptedException {
+        val activityUuid = UUID.randomUUID();
+        val otherActivityUuid = UUID.randomUUID();
+        val received = new CopyOnWriteArrayList<UUID>();
+        val delivered = new CountDownLatch(2);
+
+        val firstSubscription = testThis.subscribe(activityUuid, activityUpdate -> {
+            received.add(activityUpdate.uuid);
+            delivered.countDown();
+        });
+        val secondSubscription = testThis.subscribe(activityUuid, activityUpdate -> {
+            received.add(activityUpdate.uuid);
+            delivered.countDown();
+        });
+
+        testThis.publish(generateUpdate(otherActivityUuid, "1"));
+        testThis.publish(generateUpdate(activityUuid, "1"));
+
+        Assertions.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(Set.of(activityUuid), received.stream().collect(Collectors.toSet()));
+        Assertions.assertEquals(2, testThis.getSubscriberCount(activityUuid));
+
+        firstSubscription.close();
+        secondSubscription.close();
+        Assertions.assertEquals(0, testThis.getSubscriberCount(activityUuid));
+    }
+
+    @Test
+    @DisplayName("[publish] - Should close the subscription when its listener fails")
+    public void testPublishClosesFailingSubscription() throws InterruptedException {
+        val activityUuid = UUID.randomUUID();
+        val attempted = new CountDownLatch(1);
+
+        val subscription = testThis.subscribe(activityUuid, activityUpdate -> {
+            attempted.countDown();
+            throw new IllegalStateException("Event stream closed by the client");
+        });
+        testThis.publish(generateUpdate(activityUuid, "1"));
+
+        Assertions.assertTrue(attempted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && !subscription.isClosed(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(subscription.isClosed());
+        Assertions.assertEquals(0, testThis.getSubscriberCount(activityUuid));
+    }
+
+    @Test
+    @DisplayName("[publish] - Should leave the user errors out of the updates fanned out to subscribers")
+    public void testPublishLeavesErrorsOut() throws InterruptedException {
+        val activityUuid = UUID.randomUUID();
+        val received = new CopyOnWriteArrayList<ActivityUpdateMessageDto>();
+        val delivered = new CountDownLatch(1);
+        val subscription = testThis.subscribe(activityUuid, activityUpdate -> {
+            received.add(activityUpdate);
+            delivered.countDown();
+        });
+        val activityUpdate = generateUpdate(activityUuid, "1");
+        activityUpdate.addError(ActivityUpdateMessageDto.getErrorBuilder().externalUserId("1").code(3).message("Not your turn").build());
+
+        testThis.publish(activityUpdate);
+
+        Assertions.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(received.get(0).performErrors.isEmpty());
+        Assertions.assertEquals(activityUpdate.getMessageKey(), received.get(0).getMessageKey());
+        Assertions.assertEquals(1, activityUpdate.performErrors.size());
+        subscription.close();
+    }
+
+    @Test
+    @DisplayName("[publish] - Should hand the next update to an asynchronous subscriber only once the previous delivery completes")
+    public void testPublishWaitsForAsynchronousDelivery() throws InterruptedException {
+        val activityUuid = UUID.randomUUID();
+        val deliveries = new CopyOnWriteArrayList<CompletableFuture<Void>>();
+        val received = new CopyOnWriteArrayList<String>();
+        val firstHandedOver = new CountDownLatch(1);
+        val secondHandedOver = new CountDownLatch(2);
+        val subscription = testThis.subscribe(activityUuid, activityUpdate -> {
+            val delivery = new CompletableFuture<Void>();
+            received.add(activityUpdate.participants.iterator().next());
+            deliveries.add(delivery);
+            firstHandedOver.countDown();
+            secondHandedOver.countDown();
+            return delivery;
+        }, () -> CompletableFuture.completedFuture(null));
+
+        testThis.publish(generateUpdate(activityUuid, "1"));
+        Assertions.assertTrue(firstHandedOver.await(5, TimeUnit.SECONDS));
+        testThis.publish(generateUpdate(activityUuid, "2"));
+        Assertions.assertFalse(secondHandedOver.await(200, TimeUnit.MILLISECONDS));
+
+        deliveries.get(0).complete(null);
+        Assertions.assertTrue(secondHandedOver.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of("1", "2"), received);
+
+        deliveries.get(1).completeExceptionally(new IllegalStateException("Event stream closed by the client"));
+        for (int i = 0; i < 50 && !subscription.isClosed(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(subscription.isClosed());
+    }
+
+    @Test
+    @DisplayName("[sendHeartbeats] - Should close idle subscribers whose heartbeat fails")
+    public void testHeartbeatClosesDeadSubscriber() throws InterruptedException {
+        val activityUuid = UUID.randomUUID();
+        val heartbeats = new AtomicInteger();
+        val aliveSubscription = testThis.subscribe(activityUuid, activityUpdate -> CompletableFuture.completedFuture(null), () -> {
+            heartbeats.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+        val deadSubscription = testThis.subscribe(activityUuid, activityUpdate -> CompletableFuture.completedFuture(null), () -> {
+            throw new IllegalStateException("Event stream closed by the client");
+        });
+
+        testThis.sendHeartbeats();
+
+        for (int i = 0; i < 50 && (!deadSubscription.isClosed() || heartbeats.get() == 0); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(deadSubscription.isClosed());
+        Assertions.assertFalse(aliveSubscription.isClosed());
+        Assertions.assertTrue(heartbeats.get() > 0);
+        Assertions.assertEquals(1, testThis.getSubscriberCount(activityUuid));
+        aliveSubscription.close();
+    }
+
+    private static ActivityUpdateMessageDto generateUpdate(UUID activityUuid, String participant) {
+        val activityUpdate = new ActivityUpdateMessageDto();
+        activityUpdate.uuid = activityUuid;
+        activityUpdate.participants = Set.of(participant);
+        return activityUpdate;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package dev.orion.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.orion.entity.Activity;
+import dev.orion.entity.Document;
+import dev.orion.entity.GroupActivity;
+import dev.orion.entity.User;
+import dev.orion.fixture.ActivityFixture;
+import dev.orion.fixture.UserFixture;
+import dev.orion.services.interfaces.ActivityQueryService;
+import io.quarkus.test.junit.QuarkusTest;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@QuarkusTest
+@Transactional
+public class ActivityQueryServiceTest {
+    private static final Set<String> EXPAND_ALL = Set.of(ActivityQueryService.EXPAND_GROUPS, ActivityQueryService.EXPAND_DOCUMENTS);
+
+    @Inject
+    ActivityQueryService testThis;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("[getActivitySummary] - Should return the activity with its groups and documents when expanded")
+    public void testActivitySummaryContent() {
+        val activity = createActivity(2, 3);
+
+        val summary = testThis.getActivitySummary(activity.uuid, EXPAND_ALL);
+
+        Assertions.assertEquals(activity.uuid, summary.getUuid());
+        Assertions.assertEquals(activity.creator.externalId, summary.getCreatedBy());
+//        The fixture places the creator in the activity as well
+        Assertions.assertEquals(7, summary.getParticipantCount());
+        Assertions.assertEquals(2, summary.getGroups().size());
+        summary.getGroups().forEach(group -> Assertions.assertEquals(3, group.getParticipants().size()));
+        Assertions.assertEquals(2, summary.getDocuments().size());
+        Assertions.assertEquals(3, summary.getDocuments().get(0).getRemainingWriters());
+    }
+
+    @Test
+    @DisplayName("[getActivitySummary] - Should leave groups and documents out when not expanded")
+    public void testActivitySummaryWithoutExpand() {
+        val activity = createActivity(1, 2);
+
+        val summary = testThis.getActivitySummary(activity.uuid, Set.of());
+
+        Assertions.assertNull(summary.getGroups());
+        Assertions.assertNull(summary.getDocuments());
+    }
+
+    @Test
+    @DisplayName("[getActivitySummary] - Statement count and payload stay below the entity serialization")
+    public void testActivitySummaryAgainstEntitySerialization() {
+        val smallActivity = createActivity(1, 2);
+        val largeActivity = createActivity(20, 5);
+        val statistics = getStatistics();
+
+        clearPersistenceContext();
+        statistics.clear();
+        testThis.getActivitySummary(smallActivity.uuid, EXPAND_ALL);
+        val smallSummaryStatements = statistics.getPrepareStatementCount();
+
+        clearPersistenceContext();
+        statistics.clear();
+        val summaryPayload = serialize(testThis.getActivitySummary(largeActivity.uuid, EXPAND_ALL));
+        val largeSummaryStatements = statistics.getPrepareStatementCount();
+
+        clearPersistenceContext();
+        statistics.clear();
+        val entityPayload = serialize(Activity.findById(largeActivity.uuid));
+        val entityStatements = statistics.getPrepareStatementCount();
+
+        Assertions.assertEquals(smallSummaryStatements, largeSummaryStatements);
+        Assertions.assertTrue(largeSummaryStatements <= 3);
+        Assertions.assertTrue(entityStatements > largeSummaryStatements);
+        Assertions.assertTrue(summaryPayload.length < entityPayload.length);
+    }
+
+    @SneakyThrows
+    private byte[] serialize(Object value) {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    private Statistics getStatistics() {
+        return Activity.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void clearPersistenceContext() {
+        val entityManager = Activity.getEntityManager();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Activity createActivity(int groupCount, int groupSize) {
+        val creator = UserFixture.generateUser();
+        creator.persist();
+        val activity = ActivityFixture.generateActivity(creator);
+        activity.uuid = null;
+        activity.persist();
+
+        for (int i = 0; i < groupCount; i++) {
+            val groupActivity = new GroupActivity();
+            groupActivity.setActivityOwner(activity);
+            groupActivity.setCapacity(groupSize);
+            activity.getGroupActivities().add(groupActivity);
+            groupActivity.persist();
+
+            val document = new Document();
+            document.setExternalId(UUID.randomUUID().toString());
+            groupActivity.addDocument(document);
+
+            for (User user : createUsers(groupSize)) {
+                activity.addParticipant(user);
+                groupActivity.addParticipant(user);
+                document.addParticipant(user);
+            }
+            document.persist();
+        }
+
+        return activity;
+    }
+
+    private List<User> createUsers(int amount) {
+        val users = new ArrayList<User>();
+        for (int i = 0; i < amount; i++) {
+            val user = UserFixture.generateUser();
+            user.persist();
+            users.add(user);
+        }
+        return users;
+    }
+}
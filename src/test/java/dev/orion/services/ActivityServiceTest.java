@@ -19,6 +19,7 @@ import dev.orion.fixture.UserFixture;
 import dev.orion.fixture.WorkflowFixture;
 import dev.orion.services.dto.ActivityExecutionDto;
 import dev.orion.services.dto.UserEnhancedWithExternalData;
+import dev.orion.services.dto.UserLookupResult;
 import dev.orion.services.interfaces.ActivityService;
 import dev.orion.services.interfaces.GroupService;
 import dev.orion.services.interfaces.UserService;
@@ -46,6 +47,7 @@ import javax.ws.rs.NotFoundException;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
@@ -207,6 +209,45 @@ public class ActivityServiceTest {
         Assertions.assertEquals(UserStatus.DISCONNECTED, userCreator.status);
     }
 
+    @Test
+    @DisplayName("[addUsersInActivity] It must add valid users and report the rejected ones")
+    public void testAddUsersIntoActivity() {
+        val activityUuid = usingActivity.getUuid();
+        val newUser = UserFixture.generateUserEnhancedWithExternalDataDto();
+        val inactiveUser = UserFixture.generateUserEnhancedWithExternalDataDto();
+        inactiveUser.isActive = false;
+        val unknownUserExternalId = UUID.randomUUID().toString();
+        val unavailableUserExternalId = UUID.randomUUID().toString();
+        given(userService.getCompleteUsersData(anyCollection())).willReturn(new UserLookupResult(Map.of(
+                newUser.uuid, newUser,
+                inactiveUser.uuid, inactiveUser), Set.of(unavailableUserExternalId)));
+
+        val results = testingThis.addUsersInActivity(activityUuid, List.of(newUser.uuid, inactiveUser.uuid, unknownUserExternalId, newUser.uuid, unavailableUserExternalId));
+
+        Assertions.assertEquals(4, results.size());
+        Assertions.assertTrue(results.get(0).isEnrolled());
+        Assertions.assertEquals(MessageFormat.format("User {0} is not valid to join activity because: it is not ACTIVE", inactiveUser.uuid), results.get(1).getError());
+        Assertions.assertFalse(results.get(1).isRetryable());
+        Assertions.assertEquals(MessageFormat.format("User {0} not found in user service", unknownUserExternalId), results.get(2).getError());
+        Assertions.assertFalse(results.get(2).isRetryable());
+        Assertions.assertEquals(MessageFormat.format("User {0} could not be looked up on user service, try again", unavailableUserExternalId), results.get(3).getError());
+        Assertions.assertTrue(results.get(3).isRetryable());
+        Assertions.assertTrue(usingActivity.getParticipants().contains(newUser.userEntity));
+        Assertions.assertFalse(usingActivity.getParticipants().contains(inactiveUser.userEntity));
+        then(userService).should(times(1)).getCompleteUsersData(anyCollection());
+    }
+
+    @Test
+    @DisplayName("[addUsersInActivity] It must validate if activity has not started before adding users")
+    public void testAddUsersValidateActivityStage() {
+        usingActivity.setActualStage(ActivityStage.DURING);
+
+        val exceptionMessage = Assertions.assertThrows(UserInvalidOperationException.class, () -> testingThis.addUsersInActivity(usingActivity.getUuid(), List.of(userCreatorUUID))).getMessage();
+
+        Assertions.assertEquals(MessageFormat.format("Cannot add users to Activity {0} because it has already start", usingActivity.getUuid()), exceptionMessage);
+        then(userService).should(never()).getCompleteUsersData(anyCollection());
+    }
+
     @Test
     @DisplayName("[addUserInActivity] It must validate if activity exists")
     public void testAddUserValidateActivityExists() {
@@ -465,6 +506,57 @@ public class ActivityServiceTest {
         Assertions.assertEquals(documentUpdateDto.getMessageKey(), activityUpdateMessageDto.getMessageKey());
     }
 
+    @Test
+    @DisplayName("[execute] Should reuse the received message key on every outgoing message")
+    public void testActivityExecutionWithMessageKey() throws IOException {
+        val messageKey = UUID.randomUUID();
+        val activityExecutionDto = new ActivityExecutionDto(
+                usingActivity.getUuid(),
+                usingDocument.getExternalId(),
+                userCreator.getExternalId(),
+                Faker.instance().howIMetYourMother().catchPhrase(),
+                messageKey);
+        testingThis.execute(activityExecutionDto);
+
+        val activityUpdateMessageDtoArgumentCaptor = ArgumentCaptor.forClass(ActivityUpdateMessageDto.class);
+        val documentUpdateDtoArgumentCaptor = ArgumentCaptor.forClass(DocumentUpdateDto.class);
+        then(documentUpdateProducer).should().sendMessage(documentUpdateDtoArgumentCaptor.capture());
+        then(activityUpdateProducer).should().sendMessage(activityUpdateMessageDtoArgumentCaptor.capture());
+
+        Assertions.assertEquals(messageKey, documentUpdateDtoArgumentCaptor.getValue().getMessageKey());
+        Assertions.assertEquals(messageKey, activityUpdateMessageDtoArgumentCaptor.getValue().getMessageKey());
+    }
+
+    @Test
+    @DisplayName("[execute] Should execute with the entities of the single query execution context")
+    public void testActivityExecutionWithExecutionContext() throws IOException {
+        val executionContext = new Activity.ExecutionContext(usingActivity, usingDocument, userCreator, true);
+        given(Activity.fetchExecutionContext(usingActivity.getUuid(), usingDocument.getExternalId(), userCreator.getExternalId())).willReturn(Optional.of(executionContext));
+
+        val activity = testingThis.execute(generateActivityExecution(""));
+
+        Assertions.assertEquals(usingActivity, activity);
+        then(workflowManageService).should().apply(usingActivity, userCreator, usingDocument);
+        then(documentUpdateProducer).should().sendMessage(any());
+        PanacheMock.verify(Activity.class, never()).findByIdOptional(any(UUID.class));
+    }
+
+    @Test
+    @DisplayName("[execute] Should validate participant membership from the execution context")
+    public void testActivityExecutionWithExecutionContextOfOutsider() throws IOException {
+        val executionContext = new Activity.ExecutionContext(usingActivity, usingDocument, userCreator, false);
+        given(Activity.fetchExecutionContext(usingActivity.getUuid(), usingDocument.getExternalId(), userCreator.getExternalId())).willReturn(Optional.of(executionContext));
+
+        val activity = testingThis.execute(generateActivityExecution(""));
+
+        val activityUpdateMessageDtoArgumentCaptor = ArgumentCaptor.forClass(ActivityUpdateMessageDto.class);
+        then(activityUpdateProducer).should().sendMessage(activityUpdateMessageDtoArgumentCaptor.capture());
+        then(workflowManageService).should(never()).apply(any(), any(), any());
+        val expectedExceptionMessage = MessageFormat.format("User {0} is not in activity {1} ", userCreator.getExternalId(), usingActivity.getUuid());
+        Assertions.assertEquals(expectedExceptionMessage, activityUpdateMessageDtoArgumentCaptor.getValue().performErrors.stream().findFirst().orElseThrow().message);
+        Assertions.assertNull(activity);
+    }
+
     @Test
     @DisplayName("[execute] Should validate not found activity")
     @SneakyThrows
@@ -542,7 +634,7 @@ public class ActivityServiceTest {
     @DisplayName("[execute] Should validate if participant is in activity")
     @SneakyThrows
     public void testExecuteParticipantNotInActivity() {
-        usingActivity.getParticipants().remove(userCreator);
+        usingActivity.remove(userCreator);
 
         val activity = testingThis.execute(generateActivityExecution(""));
 
@@ -599,6 +691,65 @@ public class ActivityServiceTest {
         then(documentUpdateProducer).should().sendMessage(any());
     }
 
+    @Test
+    @DisplayName("[executeBatch] Should execute every edit of the batch in order")
+    @SneakyThrows
+    public void testBatchExecution() {
+        given(Activity.findAllByIds(anyCollection())).willReturn(List.of(usingActivity));
+        given(Document.findAllByExternalIds(anyCollection())).willReturn(List.of(usingDocument));
+        given(User.findAllByExternalIds(anyCollection())).willReturn(List.of(userCreator));
+
+        val activities = testingThis.executeBatch(List.of(generateActivityExecution("first"), generateActivityExecution("second")));
+
+        val documentUpdateDtoArgumentCaptor = ArgumentCaptor.forClass(DocumentUpdateDto.class);
+        then(workflowManageService).should(times(2)).apply(usingActivity, userCreator, usingDocument);
+        then(documentUpdateProducer).should(times(2)).sendMessage(documentUpdateDtoArgumentCaptor.capture());
+        then(activityUpdateProducer).should(times(2)).sendMessage(any());
+
+        val sentContents = documentUpdateDtoArgumentCaptor.getAllValues().stream().map(DocumentUpdateDto::getContent).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("first", "second"), sentContents);
+        Assertions.assertEquals(2, activities.size());
+    }
+
+    @Test
+    @DisplayName("[executeBatch] Should skip edits whose entities are not found and keep executing the batch")
+    @SneakyThrows
+    public void testBatchExecutionWithNotFoundDocument() {
+        given(Activity.findAllByIds(anyCollection())).willReturn(List.of(usingActivity));
+        given(Document.findAllByExternalIds(anyCollection())).willReturn(List.of(usingDocument));
+        given(User.findAllByExternalIds(anyCollection())).willReturn(List.of(userCreator));
+
+        val notFoundDocumentEdit = generateActivityExecution("");
+        notFoundDocumentEdit.setDocumentExternalId(UUID.randomUUID().toString());
+        val activities = testingThis.executeBatch(List.of(notFoundDocumentEdit, generateActivityExecution("")));
+
+        then(workflowManageService).should(times(1)).apply(usingActivity, userCreator, usingDocument);
+        then(documentUpdateProducer).should(times(1)).sendMessage(any());
+        Assertions.assertEquals(1, activities.size());
+    }
+
+    @Test
+    @DisplayName("[executeBatch] Should take membership from the participant activity column")
+    @SneakyThrows
+    public void testBatchExecutionMembershipFromParticipantColumn() {
+        given(Activity.findAllByIds(anyCollection())).willReturn(List.of(usingActivity));
+        given(Document.findAllByExternalIds(anyCollection())).willReturn(List.of(usingDocument));
+        given(User.findAllByExternalIds(anyCollection())).willReturn(List.of(userCreator));
+        userCreator.setActivity(ActivityFixture.generateActivity(userCreator));
+
+        val activities = testingThis.executeBatch(List.of(generateActivityExecution("")));
+
+        val activityUpdateMessageDtoArgumentCaptor = ArgumentCaptor.forClass(ActivityUpdateMessageDto.class);
+        then(activityUpdateProducer).should().sendMessage(activityUpdateMessageDtoArgumentCaptor.capture());
+        then(workflowManageService).should(never()).apply(any(), any(), any());
+        then(documentUpdateProducer).should(never()).sendMessage(any());
+
+        val expectedExceptionMessage = MessageFormat.format("User {0} is not in activity {1} ", userCreator.getExternalId(), usingActivity.getUuid());
+        val userError = activityUpdateMessageDtoArgumentCaptor.getValue().performErrors.stream().findFirst().orElseThrow();
+        Assertions.assertEquals(expectedExceptionMessage, userError.message);
+        Assertions.assertTrue(activities.isEmpty());
+    }
+
     private ActivityExecutionDto generateActivityExecution(String content) {
         return new ActivityExecutionDto(
                 usingActivity.getUuid(),
@@ -0,0 +1,169 @@
+package dev.orion.services;
+
+import dev.orion.client.DocumentClient;
+import dev.orion.client.dto.CreateDocumentResponse;
+import dev.orion.entity.User;
+import dev.orion.fixture.UserFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.junit.mockito.InjectMock;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.transaction.UserTransaction;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@QuarkusTest
+@TestProfile(DocumentPoolTest.EnabledDocumentPoolProfile.class)
+public class DocumentPoolTest {
+    @Inject
+    DocumentPool testThis;
+
+    @Inject
+    DocumentServiceImpl documentService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    UserTransaction userTransaction;
+
+    @InjectMock
+    @RestClient
+    DocumentClient documentClient;
+
+    @BeforeEach
+    public void setup() {
+        given(documentClient.createDocument(any()))
+                .willAnswer(invocation -> new CreateDocumentResponse(UUID.randomUUID().toString(), ""));
+    }
+
+    @AfterEach
+    public void drainPool() {
+        testThis.claim((int) testThis.size());
+    }
+
+    @Test
+    @DisplayName("[refill] - Should fill the pool up to the high watermark")
+    public void testRefillUpToHighWatermark() {
+        testThis.refill();
+
+        Assertions.assertEquals(DocumentPool.HIGH_WATERMARK, testThis.size());
+        then(documentClient).should(times(DocumentPool.HIGH_WATERMARK)).createDocument(any());
+    }
+
+    @Test
+    @DisplayName("[refill] - Should not refill while the pool is at or above the low watermark")
+    public void testRefillSkippedAboveLowWatermark() {
+        testThis.refill();
+        testThis.claim();
+        testThis.refill();
+
+        Assertions.assertEquals(DocumentPool.HIGH_WATERMARK - 1, testThis.size());
+        then(documentClient).should(times(DocumentPool.HIGH_WATERMARK)).createDocument(any());
+    }
+
+    @Test
+    @DisplayName("[createDocument] - Should claim a pooled document without calling the document service")
+    @SneakyThrows
+    public void testCreateDocumentClaimsFromPool() {
+        testThis.refill();
+        val hitsBefore = meterRegistry.counter("orion.documents.pool.hits").count();
+
+        userTransaction.begin();
+        val document = documentService.createDocument(UUID.randomUUID(), "", Set.of(persistedUser()));
+        val documents = documentService.createDocuments("", List.of(Set.of(persistedUser()), Set.of(persistedUser())));
+        userTransaction.commit();
+
+        Assertions.assertNotNull(document.getExternalId());
+        Assertions.assertEquals(2, documents.size());
+        Assertions.assertEquals(DocumentPool.HIGH_WATERMARK - 3, testThis.size());
+        Assertions.assertEquals(hitsBefore + 3, meterRegistry.counter("orion.documents.pool.hits").count());
+        then(documentClient).should(times(DocumentPool.HIGH_WATERMARK)).createDocument(any());
+    }
+
+    @Test
+    @DisplayName("[createDocument] - Should call the document service when the pool is empty or content is given")
+    @SneakyThrows
+    public void testCreateDocumentFallsBackToDocumentService() {
+        userTransaction.begin();
+        documentService.createDocument(UUID.randomUUID(), "", Set.of(persistedUser()));
+        userTransaction.commit();
+        then(documentClient).should(times(1)).createDocument(any());
+
+        testThis.refill();
+        userTransaction.begin();
+        documentService.createDocument(UUID.randomUUID(), "initial content", Set.of(persistedUser()));
+        userTransaction.commit();
+        then(documentClient).should(times(DocumentPool.HIGH_WATERMARK + 2)).createDocument(any());
+        Assertions.assertEquals(DocumentPool.HIGH_WATERMARK, testThis.size());
+    }
+
+    @Test
+    @DisplayName("[createDocuments] - Pooled documents claimed by a transaction that rolls back should stay in the pool")
+    @SneakyThrows
+    public void testClaimedDocumentsKeptOnRollback() {
+        testThis.refill();
+
+        userTransaction.begin();
+        documentService.createDocuments("", List.of(Set.of(persistedUser()), Set.of(persistedUser())));
+        Assertions.assertEquals(DocumentPool.HIGH_WATERMARK - 2, testThis.size());
+        userTransaction.rollback();
+
+        Assertions.assertEquals(DocumentPool.HIGH_WATERMARK, testThis.size());
+        then(documentClient).should(times(DocumentPool.HIGH_WATERMARK)).createDocument(any());
+    }
+
+    @Test
+    @DisplayName("[createDocuments] - Documents created for a transaction that rolls back should go back to the pool")
+    @SneakyThrows
+    public void testCreatedDocumentsReturnedOnRollback() {
+        userTransaction.begin();
+        val documents = documentService.createDocuments("", List.of(Set.of(persistedUser()), Set.of(persistedUser())));
+        userTransaction.rollback();
+
+        awaitPoolSize(2);
+        then(documentClient).should(times(2)).createDocument(any());
+        Assertions.assertEquals(documents.get(0).getExternalId(), testThis.claim().orElseThrow());
+    }
+
+    private User persistedUser() {
+        val user = UserFixture.generateUser();
+        user.persist();
+        return user;
+    }
+
+//    Documents are given back on a provisioning thread once the rollback completed
+    @SneakyThrows
+    private void awaitPoolSize(long size) {
+        val deadline = System.currentTimeMillis() + 5000;
+        while (testThis.size() != size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(size, testThis.size());
+    }
+
+    public static class EnabledDocumentPoolProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("activity.document-pool.enabled", "true");
+        }
+    }
+}
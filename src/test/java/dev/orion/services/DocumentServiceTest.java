@@ -104,6 +104,7 @@ public class DocumentServiceTest {
 
         Assertions.assertTrue(document.getParticipantsAssigned().isEmpty());
         Assertions.assertTrue(document.getParticipantsThatEdited().contains(user));
+        Assertions.assertTrue(document.isRoundFinished());
     }
 
     @Test
@@ -136,6 +137,7 @@ public class DocumentServiceTest {
         testThis.moveAllUsersFromEditedToParticipantList(document.getExternalId());
         Assertions.assertTrue(document.getParticipantsThatEdited().isEmpty());
         Assertions.assertEquals(participants.size(), document.getParticipantsAssigned().size());
+        Assertions.assertEquals(participants.size(), document.getRemainingWriters());
     }
 
     @Test
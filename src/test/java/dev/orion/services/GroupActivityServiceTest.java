@@ -465,6 +465,32 @@ public class GroupActivityServiceTest {
         Assertions.assertThrows(RuntimeException.class, () -> testThis.transferUserToGroup(new Activity(), new User(), new GroupActivity()));
     }
 
+    @Test
+    @DisplayName("[createGroups] Should split users in balanced groups with one provisioned document each")
+    public void testCreateGroupsSplitsUsers() {
+        val activity = new Activity();
+        val author = UserFixture.generateUser();
+        injectUserInActivity(activity, author);
+        injectWorkflowInActivity(activity);
+
+        val users = Stream.generate(UserFixture::generateUser).limit(22).collect(Collectors.toSet());
+        users.forEach(activity::addParticipant);
+        activity.persist();
+        BDDMockito.given(documentClient.createDocument(any()))
+                .willAnswer(invocation -> new CreateDocumentResponse(UUID.randomUUID().toString(), ""));
+
+        val groups = testThis.createGroups(activity, users, 5);
+
+        Assertions.assertEquals(5, groups.size());
+        Assertions.assertEquals(List.of(5, 5, 4, 4, 4), groups.stream().map(GroupActivity::getCapacity).collect(Collectors.toList()));
+        Assertions.assertEquals(users.size(), groups.stream().mapToInt(group -> group.getParticipants().size()).sum());
+        groups.forEach(group -> {
+            Assertions.assertEquals(1, group.getDocuments().size());
+            Assertions.assertEquals(group.getParticipants(), group.getDocuments().get(0).getParticipantsAssigned());
+        });
+        verify(documentClient, times(groups.size())).createDocument(any());
+    }
+
     private Set<User> generateSetUsers() {
         return Stream.of(new User[]{
                 UserFixture.generateUser(), UserFixture.generateUser(),
@@ -0,0 +1,110 @@
+package dev.orion.services;
+
+import dev.orion.client.UserClient;
+import dev.orion.client.dto.UserClientResponse;
+import dev.orion.entity.Activity;
+import dev.orion.entity.User;
+import dev.orion.fixture.UserFixture;
+import dev.orion.services.interfaces.UserService;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectMock;
+import lombok.val;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.BDDMockito.given;
+
+@QuarkusTest
+@Transactional
+public class UserServiceLookupTest {
+    @Inject
+    UserService testThis;
+
+    @InjectMock
+    @RestClient
+    UserClient userClient;
+
+    @Test
+    @DisplayName("[getCompleteUsersData] - Should look users up in parallel, load the known ones with one query and persist the new ones")
+    public void testBulkLookup() {
+        val knownUser = UserFixture.generateUser();
+        knownUser.persist();
+        val newUserExternalId = UUID.randomUUID().toString();
+        val lookedUpTogether = new CountDownLatch(2);
+        val lookupThreads = new CopyOnWriteArrayList<String>();
+        mockConcurrentLookup(knownUser.externalId, lookedUpTogether, lookupThreads);
+        mockConcurrentLookup(newUserExternalId, lookedUpTogether, lookupThreads);
+        val statistics = getStatistics();
+        statistics.clear();
+
+        val result = testThis.getCompleteUsersData(List.of(knownUser.externalId, newUserExternalId, knownUser.externalId));
+
+        Assertions.assertEquals(List.of(knownUser.externalId, newUserExternalId), List.copyOf(result.getUsers().keySet()));
+        Assertions.assertTrue(result.getUnavailableUserExternalIds().isEmpty());
+//        Each lookup only returns once the other one has started, so both ran at the same time on the lookup threads
+        Assertions.assertEquals(2, lookupThreads.size());
+        lookupThreads.forEach(threadName -> Assertions.assertTrue(threadName.startsWith("user-lookup-")));
+        Assertions.assertSame(knownUser, result.getUsers().get(knownUser.externalId).getUserEntity());
+        val newUser = result.getUsers().get(newUserExternalId).getUserEntity();
+        Assertions.assertTrue(newUser.isPersistent());
+        Assertions.assertEquals(newUser, User.findUserByExternalId(newUserExternalId).orElseThrow());
+        val knownUsersQueries = Arrays.stream(statistics.getQueries())
+                .filter(query -> query.contains("externalId in"))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+        Assertions.assertEquals(1, knownUsersQueries);
+    }
+
+    @Test
+    @DisplayName("[getCompleteUsersData] - Should leave users unknown to the user service out and report failed lookups apart")
+    public void testBulkLookupFailures() {
+        val foundUserExternalId = UUID.randomUUID().toString();
+        val missingUserExternalId = UUID.randomUUID().toString();
+        val timedOutUserExternalId = UUID.randomUUID().toString();
+        val failedUserExternalId = UUID.randomUUID().toString();
+        UserFixture.mockUserClient(userClient, foundUserExternalId);
+        given(userClient.getUserByExternalId(missingUserExternalId)).willThrow(new NotFoundException());
+        given(userClient.getUserByExternalId(timedOutUserExternalId)).willThrow(new ProcessingException("Read timed out"));
+        given(userClient.getUserByExternalId(failedUserExternalId)).willThrow(new WebApplicationException(503));
+
+        val result = testThis.getCompleteUsersData(List.of(foundUserExternalId, missingUserExternalId, timedOutUserExternalId, failedUserExternalId));
+
+        Assertions.assertEquals(Set.of(foundUserExternalId), result.getUsers().keySet());
+        Assertions.assertEquals(Set.of(timedOutUserExternalId, failedUserExternalId), result.getUnavailableUserExternalIds());
+        Assertions.assertFalse(result.isUnavailable(missingUserExternalId));
+        Assertions.assertTrue(User.findUserByExternalId(missingUserExternalId).isEmpty());
+        Assertions.assertTrue(User.findUserByExternalId(timedOutUserExternalId).isEmpty());
+    }
+
+    private void mockConcurrentLookup(String userExternalId, CountDownLatch lookedUpTogether, List<String> lookupThreads) {
+        val userClientResponse = UserFixture.generateClientResponseDto();
+        userClientResponse.uuid = userExternalId;
+        given(userClient.getUserByExternalId(userExternalId)).willAnswer(invocation -> {
+            lookedUpTogether.countDown();
+            Assertions.assertTrue(lookedUpTogether.await(5, TimeUnit.SECONDS));
+            lookupThreads.add(Thread.currentThread().getName());
+            return userClientResponse;
+        });
+    }
+
+    private Statistics getStatistics() {
+        return Activity.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
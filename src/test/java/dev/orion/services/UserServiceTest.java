@@ -22,8 +22,12 @@ import org.mockito.Mockito;
 import javax.inject.Inject;
 import javax.ws.rs.NotFoundException;
 import java.text.MessageFormat;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.BDDMockito.*;
 
@@ -32,6 +36,9 @@ public class UserServiceTest {
     @Inject
     UserService testThis;
 
+    @Inject
+    UserClientCache userClientCache;
+
     @InjectMock
     @RestClient
     UserClient userClient;
@@ -106,4 +113,49 @@ public class UserServiceTest {
         then(session).should(never()).persist(any(User.class));
         Assertions.assertEquals(expectedMessage, exceptionMessage);
     }
+
+    @Test
+    @DisplayName("[getCompleteUserData] Should ask the user service only once for a cached user")
+    public void testGetCompleteUserDataUsesCache() {
+        testThis.getCompleteUserData(commonUserExternalId);
+        val completeUserData = testThis.getCompleteUserData(commonUserExternalId);
+
+        Assertions.assertEquals(userClientResponse.name, completeUserData.name);
+        then(userClient).should(times(1)).getUserByExternalId(commonUserExternalId);
+    }
+
+    @Test
+    @DisplayName("[getUser] Should coalesce concurrent misses of the same user into one remote call")
+    public void testConcurrentMissesAreCoalesced() throws Exception {
+        val externalId = UUID.randomUUID().toString();
+        val lookupStarted = new CountDownLatch(1);
+        val releaseLookup = new CountDownLatch(1);
+        given(userClient.getUserByExternalId(externalId)).willAnswer(invocation -> {
+            lookupStarted.countDown();
+            releaseLookup.await(5, TimeUnit.SECONDS);
+            return userClientResponse;
+        });
+
+        val firstLookup = CompletableFuture.supplyAsync(() -> userClientCache.getUser(externalId));
+        Assertions.assertTrue(lookupStarted.await(5, TimeUnit.SECONDS));
+        val secondLookup = CompletableFuture.supplyAsync(() -> userClientCache.getUser(externalId));
+        releaseLookup.countDown();
+
+        Assertions.assertSame(userClientResponse, firstLookup.get(5, TimeUnit.SECONDS));
+        Assertions.assertSame(userClientResponse, secondLookup.get(5, TimeUnit.SECONDS));
+        then(userClient).should(times(1)).getUserByExternalId(externalId);
+    }
+
+    @Test
+    @DisplayName("[prefetchAllUsers] Should cache every user returned by the bulk lookup")
+    public void testPrefetchAllUsers() {
+        val firstUser = UserFixture.generateClientResponseDto();
+        val secondUser = UserFixture.generateClientResponseDto();
+        given(userClient.getAllUsers()).willReturn(List.of(firstUser, secondUser));
+
+        Assertions.assertEquals(2, userClientCache.prefetchAllUsers());
+        Assertions.assertSame(firstUser, userClientCache.getUser(firstUser.uuid));
+        Assertions.assertSame(secondUser, userClientCache.getUser(secondUser.uuid));
+        then(userClient).should(never()).getUserByExternalId(anyString());
+    }
 }
@@ -28,6 +28,7 @@ import org.mockito.MockitoAnnotations;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static org.mockito.BDDMockito.*;
 
@@ -292,6 +293,30 @@ public class WorkflowManageServiceTest {
         then(unorderedCircleOfWritersStepExecutor).should(never()).isFinished(any(Activity.class), any());
     }
 
+    @Test
+    @DisplayName("[apply] Should reuse the compiled plan of a persisted workflow until it is updated")
+    public void testCompiledPlanIsCachedUntilWorkflowUpdate() {
+        User user = UserFixture.generateUser();
+        Activity activity = new Activity();
+        activity.creator = user;
+        activity.actualStage = ActivityStage.DURING;
+        activity.workflow = generateWorkflow();
+        activity.workflow.id = ThreadLocalRandom.current().nextLong(1_000_000L, Long.MAX_VALUE);
+
+        testThis.apply(activity, user, new Document());
+        activity.workflow.getStages().forEach(stage -> stage.getSteps().clear());
+        testThis.apply(activity, user, new Document());
+        BDDMockito.then(unorderedCircleOfWritersStepExecutor).should(times(2)).execute(any(), any(), any());
+
+        given(Workflow.findByName(activity.workflow.getName())).willReturn(Optional.of(activity.workflow));
+        val updatedStages = new HashSet<>(Set.of(WorkflowFixture.generateStage(ActivityStage.DURING, List.of(new SendEmailStep()))));
+        testThis.createOrUpdateWorkflow(updatedStages, activity.workflow.getName(), activity.workflow.getDescription());
+
+        testThis.apply(activity, user, new Document());
+        BDDMockito.then(sendEmailStepExecutor).should().execute(any(), any(), any());
+        BDDMockito.then(unorderedCircleOfWritersStepExecutor).should(times(2)).execute(any(), any(), any());
+    }
+
     private Workflow generateWorkflow() {
         val workflow = new Workflow();
         workflow.setName(Faker.instance().rickAndMorty().character());
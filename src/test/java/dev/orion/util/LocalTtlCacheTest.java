@@ -0,0 +1,62 @@
+package dev.orion.util;
+
+import dev.orion.util.cache.LocalTtlCache;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public class LocalTtlCacheTest {
+
+    @Test
+    @DisplayName("[get] Should return the value stored for a key")
+    public void testGetStoredValue() {
+        val testThis = new LocalTtlCache<String, Integer>(10, Duration.ofMinutes(1));
+        testThis.put("key", 1);
+
+        Assertions.assertEquals(Optional.of(1), testThis.get("key"));
+        Assertions.assertTrue(testThis.contains("key"));
+        Assertions.assertFalse(testThis.contains("another key"));
+    }
+
+    @Test
+    @DisplayName("[put] Should evict the least recently used entry when it's full")
+    public void testLeastRecentlyUsedEviction() {
+        val testThis = new LocalTtlCache<String, Integer>(2, Duration.ofMinutes(1));
+        testThis.put("first", 1);
+        testThis.put("second", 2);
+        testThis.get("first");
+        testThis.put("third", 3);
+
+        Assertions.assertEquals(2, testThis.size());
+        Assertions.assertTrue(testThis.contains("first"));
+        Assertions.assertFalse(testThis.contains("second"));
+        Assertions.assertTrue(testThis.contains("third"));
+    }
+
+    @Test
+    @DisplayName("[get] Should not return expired entries")
+    @SneakyThrows
+    public void testExpiredEntry() {
+        val testThis = new LocalTtlCache<String, Integer>(10, Duration.ofMillis(20));
+        testThis.put("key", 1);
+        Thread.sleep(50);
+
+        Assertions.assertTrue(testThis.get("key").isEmpty());
+        Assertions.assertEquals(0, testThis.size());
+    }
+
+    @Test
+    @DisplayName("[invalidate] Should remove the entry")
+    public void testInvalidation() {
+        val testThis = new LocalTtlCache<String, Integer>(10, Duration.ofMinutes(1));
+        testThis.put("key", 1);
+        testThis.invalidate("key");
+
+        Assertions.assertFalse(testThis.contains("key"));
+    }
+}
@@ -0,0 +1,193 @@
+package dev.orion.workflowExecutor;
+
+import dev.orion.commom.constant.CircularStepFlowDirectionTypes;
+import dev.orion.commom.exception.NotValidActionException;
+import dev.orion.entity.Document;
+import dev.orion.entity.User;
+import dev.orion.entity.step_type.OrderedCircleOfWriter;
+import dev.orion.fixture.DocumentFixture;
+import dev.orion.services.interfaces.DocumentService;
+import dev.orion.workflowExecutor.impl.OrderedCircleOfWriterStepExecutor;
+import io.quarkus.panache.mock.PanacheMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static dev.orion.fixture.UserFixture.generateUser;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+
+@QuarkusTest
+public class OrderedCircleOfWriterStepExecutorTest {
+    @Inject
+    OrderedCircleOfWriterStepExecutor testThis;
+
+    @InjectSpy
+    DocumentService documentService;
+
+    private OrderedCircleOfWriter usingStep;
+
+    @BeforeEach
+    private void setup() {
+        PanacheMock.mock(Document.class);
+        usingStep = new OrderedCircleOfWriter(CircularStepFlowDirectionTypes.FROM_BEGIN_TO_END);
+    }
+
+    @Test
+    @DisplayName("[getStepRepresentation] - Should return the OrderedCircleOfWriter name")
+    public void testGetStepRepresentationReturn() {
+        Assertions.assertEquals(new OrderedCircleOfWriter().getStepType(), testThis.getStepRepresentation());
+    }
+
+    @Test
+    @DisplayName("[validate] - Should accept only the writer whose turn it is")
+    public void testValidateOnlyAcceptsActualWriter() {
+        val writers = createSortedWriters(3);
+        val document = DocumentFixture.createDocument(new LinkedHashSet<>(writers));
+
+        testThis.validate(document, writers.get(0), usingStep);
+        val outOfTurnWriter = writers.get(1);
+        val exceptionMessage = Assertions.assertThrows(NotValidActionException.class, () -> testThis.validate(document, outOfTurnWriter, usingStep)).toString();
+
+        val expectedMessage = MessageFormat.format("Step name: {0} has error: It is not the turn of user {1} in document {2}", usingStep.getStepType(), outOfTurnWriter.getExternalId(), document.getExternalId());
+        Assertions.assertEquals(expectedMessage, exceptionMessage);
+    }
+
+    @Test
+    @DisplayName("[execute] - Should ignore edits made out of turn")
+    public void testExecuteIgnoresOutOfTurnWriter() {
+        val writers = createSortedWriters(3);
+        val document = DocumentFixture.createDocument(new LinkedHashSet<>(writers));
+
+        testThis.execute(document, writers.get(2), usingStep);
+
+        Assertions.assertEquals(0, document.getTurnPosition());
+        Assertions.assertEquals(3, document.getRemainingWriters());
+    }
+
+    @Test
+    @DisplayName("[execute] - Should hand the turn from the last writer to the first when flowing from end to begin")
+    public void testExecuteFollowsFlowDirection() {
+        val writers = createSortedWriters(3);
+        val document = DocumentFixture.createDocument(new LinkedHashSet<>(writers));
+        usingStep.setFlowDirection(CircularStepFlowDirectionTypes.FROM_END_TO_BEGIN);
+
+        for (int i = writers.size() - 1; i >= 0; i--) {
+            testThis.validate(document, writers.get(i), usingStep);
+            testThis.execute(document, writers.get(i), usingStep);
+        }
+
+        Assertions.assertTrue(document.isRoundFinished());
+    }
+
+    @Test
+    @DisplayName("[execute] - Should start a new round until the step rounds are reached")
+    public void testExecuteAdvancesRounds() {
+        val writers = createSortedWriters(2);
+        val document = DocumentFixture.createDocument(new LinkedHashSet<>(writers));
+        usingStep.setRounds(2);
+
+        writers.forEach(writer -> testThis.execute(document, writer, usingStep));
+        Assertions.assertEquals(2, document.getRounds());
+        Assertions.assertEquals(2, document.getRemainingWriters());
+
+        writers.forEach(writer -> testThis.execute(document, writer, usingStep));
+        Assertions.assertEquals(2, document.getRounds());
+        Assertions.assertTrue(document.isRoundFinished());
+        Assertions.assertThrows(NotValidActionException.class, () -> testThis.validate(document, writers.get(0), usingStep));
+        then(documentService).should(times(1)).moveAllUsersFromEditedToParticipantList(document);
+    }
+
+    @Test
+    @DisplayName("[execute] - Turn handoff reuses the precomputed rotation for groups from 2 to 500 writers")
+    public void testTurnHandoffUsesPrecomputedRotation() {
+        for (int groupSize : new int[]{2, 3, 10, 50, 100, 500}) {
+            val writers = createSortedWriters(groupSize);
+            val document = DocumentFixture.createDocument(new LinkedHashSet<>(writers));
+            val rotation = testThis.getTurnRotation(document, usingStep);
+
+            for (int turn = 0; turn < groupSize; turn++) {
+                val writer = writers.get(turn);
+                Assertions.assertSame(writer, rotation.writerAt(document.getTurnPosition()));
+                Assertions.assertSame(rotation, testThis.getTurnRotation(document, usingStep));
+
+                testThis.validate(document, writer, usingStep);
+                testThis.execute(document, writer, usingStep);
+            }
+
+            Assertions.assertTrue(document.isRoundFinished());
+            Assertions.assertTrue(document.getParticipantsThatEdited().isEmpty());
+            Assertions.assertEquals(groupSize, document.getParticipantsAssigned().size());
+        }
+
+        then(documentService).should(never()).moveAllUsersFromEditedToParticipantList(any(Document.class));
+    }
+
+    @Test
+    @DisplayName("[getTurnRotation] - Should rebuild the rotation when a writer is swapped for another one")
+    public void testRotationRebuiltForSwappedWriter() {
+        val writers = createSortedWriters(3);
+        val document = DocumentFixture.createDocument(new LinkedHashSet<>(writers));
+        val rotation = testThis.getTurnRotation(document, usingStep);
+
+        val newWriter = generateUser();
+        document.removeParticipant(writers.get(1));
+        document.addParticipant(newWriter);
+        val rebuiltRotation = testThis.getTurnRotation(document, usingStep);
+
+        Assertions.assertNotSame(rotation, rebuiltRotation);
+        Assertions.assertEquals(3, rebuiltRotation.size());
+        Assertions.assertTrue(IntStream.range(0, 3).anyMatch(turn -> rebuiltRotation.writerAt(turn).equals(newWriter)));
+        Assertions.assertSame(rebuiltRotation, testThis.getTurnRotation(document, usingStep));
+    }
+
+    @Test
+    @DisplayName("[getTurnRotation] - Should reuse the rotation without reading the assigned writers again")
+    public void testRotationReusedWithoutScanningWriters() {
+        val writers = createSortedWriters(50);
+        val document = spy(DocumentFixture.createDocument(new LinkedHashSet<>(writers)));
+        val rotation = testThis.getTurnRotation(document, usingStep);
+        clearInvocations(document);
+
+        testThis.validate(document, writers.get(0), usingStep);
+        Assertions.assertSame(rotation, testThis.getTurnRotation(document, usingStep));
+
+        then(document).should(never()).getParticipantsAssigned();
+    }
+
+    @Test
+    @DisplayName("[validate] - Should refuse edits on a document without assigned writers")
+    public void testDocumentWithoutWriters() {
+        val document = DocumentFixture.createDocument(new LinkedHashSet<>());
+        val writer = generateUser();
+        document.setRemainingWriters(1);
+
+        Assertions.assertThrows(NotValidActionException.class, () -> testThis.validate(document, writer, usingStep));
+        Assertions.assertDoesNotThrow(document::passTurn);
+        Assertions.assertEquals(0, document.getTurnPosition());
+    }
+
+    private List<User> createSortedWriters(int amount) {
+        return IntStream.range(0, amount)
+                .mapToObj(i -> generateUser())
+                .sorted(Comparator.comparing(User::getExternalId))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -33,6 +33,7 @@ import static dev.orion.fixture.ActivityFixture.generateActivity;
 import static dev.orion.fixture.UserFixture.createParticipants;
 import static dev.orion.fixture.UserFixture.generateUser;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.*;
@@ -141,7 +142,7 @@ public class UnorderedCircleOfWritersStepExecutorTest {
         val participantsToEdit = new HashSet<>(usingDocument.getParticipantsAssigned());
 
         participantsToEdit.removeIf(user -> user.equals(userExecutor));
-        usingDocument.getParticipantsAssigned().removeIf(user -> !user.equals(userExecutor));
+        participantsToEdit.forEach(usingDocument::removeParticipant);
         usingDocument.setParticipantsThatEdited(participantsToEdit);
 
         val expectedRounds = 2;
@@ -181,7 +182,7 @@ public class UnorderedCircleOfWritersStepExecutorTest {
 
         val expectedExecutions = usingParticipants.size() * 2;
         then(documentService).should(times(expectedExecutions)).moveParticipantToEditedList(any(Document.class), any(User.class));
-        then(documentService).should().moveAllUsersFromEditedToParticipantList(usingDocument.getExternalId());
+        then(documentService).should().moveAllUsersFromEditedToParticipantList(usingDocument);
         Assertions.assertEquals(expectedRounds, usingDocument.getRounds());
     }
 
@@ -221,52 +222,39 @@ public class UnorderedCircleOfWritersStepExecutorTest {
     @Test
     @DisplayName("[isFinished] - Should return true when task is finished")
     public void testFinishedStepReturn() {
-        val spyDocument = spy(usingDocument);
-        usingParticipants.forEach(user -> {
-            testThis.execute(usingDocument, user, usingStep);
-        });
+        given(Document.countByActivity(usingActivity.uuid)).willReturn(1L);
+        given(Document.countUnfinishedByActivity(usingActivity.uuid, usingStep.getRounds())).willReturn(0L);
 
-        given(Document.findAllByGroupActivity(usingActivity.uuid)).willReturn(Arrays.asList(spyDocument));
         val stepFinished = testThis.isFinished(usingActivity, usingStep);
-        then(spyDocument).should().getParticipantsAssigned();
-        then(spyDocument).should().getRounds();
         Assertions.assertTrue(stepFinished);
     }
 
     @Test
     @DisplayName("[isFinished] - Should return true when task is finished")
     public void testFinishedStepListValidation() {
-        val spyDocument = spy(usingDocument);
-        usingParticipants.forEach(user -> {
-            testThis.execute(usingDocument, user, usingStep);
-        });
-
-        given(Document.findAllByGroupActivity(UUID.randomUUID())).willReturn(Arrays.asList(spyDocument));
+        given(Document.countByActivity(UUID.randomUUID())).willReturn(1L);
         val exceptionMessage = Assertions.assertThrows(NotValidActionException.class, () -> testThis.isFinished(usingActivity, usingStep)).toString();
 
         val expectedMessage = MessageFormat.format("Step name: {0} has error: document must not be null", usingStep.getStepType());
         Assertions.assertEquals(expectedMessage, exceptionMessage);
-        then(spyDocument).should(never()).getParticipantsAssigned();
-        then(spyDocument).should(never()).getRounds();
+        PanacheMock.verify(Document.class, never()).countUnfinishedByActivity(any(UUID.class), anyInt());
     }
 
     @Test
     @DisplayName("[isFinished] - Should return false when there is participants that has no edited")
     public void testFinishedStepReturnWhenThereIsUserToParticipate() {
-        val spyDocument = spy(usingDocument);
-        given(Document.findAllByGroupActivity(usingActivity.uuid)).willReturn(Arrays.asList(spyDocument));
+        given(Document.countByActivity(usingActivity.uuid)).willReturn(1L);
+        given(Document.countUnfinishedByActivity(usingActivity.uuid, usingStep.getRounds())).willReturn(1L);
 
         val stepFinished = testThis.isFinished(usingActivity, usingStep);
 
-        then(spyDocument).should().getParticipantsAssigned();
-        then(spyDocument).should(never()).getRounds();
+        Assertions.assertFalse(usingDocument.isRoundFinished());
         Assertions.assertFalse(stepFinished);
     }
 
     @Test
     @DisplayName("[isFinished] - Should return false when document round is less then configured in step")
     public void testFinishedStepReturnWhenThereIsMoreRoundsTo() {
-        val spyDocument = spy(usingDocument);
         val expectedRounds = 2;
         usingStep.setRounds(expectedRounds);
 
@@ -274,10 +262,10 @@ public class UnorderedCircleOfWritersStepExecutorTest {
             testThis.execute(usingDocument, user, usingStep);
         });
 
-        given(Document.findAllByGroupActivity(usingActivity.uuid)).willReturn(Arrays.asList(spyDocument));
+        given(Document.countByActivity(usingActivity.uuid)).willReturn(1L);
+        given(Document.countUnfinishedByActivity(usingActivity.uuid, expectedRounds)).willReturn(1L);
         val stepFinished = testThis.isFinished(usingActivity, usingStep);
-        then(spyDocument).should().getParticipantsAssigned();
-        then(spyDocument).should().getRounds();
+        PanacheMock.verify(Document.class).countUnfinishedByActivity(usingActivity.uuid, expectedRounds);
         Assertions.assertFalse(stepFinished);
     }
 
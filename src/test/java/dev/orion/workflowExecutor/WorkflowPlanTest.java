@@ -0,0 +1,77 @@
+package dev.orion.workflowExecutor;
+
+import dev.orion.client.EmailClient;
+import dev.orion.commom.constant.ActivityStage;
+import dev.orion.entity.Activity;
+import dev.orion.entity.Document;
+import dev.orion.entity.User;
+import dev.orion.entity.step_type.SendEmailStep;
+import dev.orion.fixture.ActivityFixture;
+import dev.orion.fixture.UserFixture;
+import dev.orion.services.interfaces.WorkflowManageService;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectMock;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.transaction.UserTransaction;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@QuarkusTest
+public class WorkflowPlanTest {
+    @Inject
+    WorkflowManageService workflowManageService;
+
+    @Inject
+    UserTransaction userTransaction;
+
+    @RestClient
+    @InjectMock
+    EmailClient emailClient;
+
+    @Test
+    @DisplayName("[compile] - Plan cached in one transaction still reads the step email messages in the next one")
+    @SneakyThrows
+    public void testCachedPlanInLaterTransaction() {
+        userTransaction.begin();
+        val creator = UserFixture.generateUser();
+        creator.persist();
+        val activity = ActivityFixture.generateActivity(creator);
+        activity.uuid = null;
+        activity.actualStage = ActivityStage.DURING;
+        activity.workflow.setName(UUID.randomUUID().toString());
+        activity.addParticipant(creator);
+        activity.persist();
+        val sendEmailStep = (SendEmailStep) activity.workflow.getStages().iterator().next().getSteps().get(0);
+        sendEmailStep.addMessage(ActivityStage.DURING, "Activity is running");
+        userTransaction.commit();
+
+//        The first call compiles and caches the plan, the second one runs it after that session was closed
+        applyInNewTransaction(activity.uuid, creator.externalId);
+        applyInNewTransaction(activity.uuid, creator.externalId);
+
+        then(emailClient).should(times(2)).sendEmails(any());
+    }
+
+    @SneakyThrows
+    private void applyInNewTransaction(UUID activityUuid, String userExternalId) {
+        userTransaction.begin();
+        try {
+            Activity activity = Activity.findById(activityUuid);
+            val user = User.findUserByExternalId(userExternalId).orElseThrow();
+            workflowManageService.apply(activity, user, new Document());
+            userTransaction.commit();
+        } catch (RuntimeException e) {
+            userTransaction.rollback();
+            throw e;
+        }
+    }
+}